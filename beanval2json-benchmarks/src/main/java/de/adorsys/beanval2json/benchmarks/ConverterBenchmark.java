@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.converter.AnnotationValues;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
+
+/**
+ * Measures the lookup of the converter for an annotation and the conversion of its values
+ * @author Florian Hirsch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(ConverterBenchmark.ANNOTATIONS)
+public class ConverterBenchmark {
+
+	static final int ANNOTATIONS = 1300;
+
+	private ConverterRegistry converters;
+
+	private String[] names;
+
+	private AnnotationValues[] values;
+
+	@Setup
+	public void setUp() throws ProcessingException {
+		converters = ConverterRegistry.withDefaultConverters(new ConverterContext(null, null, null, null));
+		List<String> annotationNames = SyntheticAnnotations.names(ANNOTATIONS);
+		names = annotationNames.toArray(new String[ANNOTATIONS]);
+		List<AnnotationValues> annotationValues = SyntheticAnnotations.values(ANNOTATIONS);
+		values = annotationValues.toArray(new AnnotationValues[ANNOTATIONS]);
+	}
+
+	@Benchmark
+	public void dispatch(Blackhole blackhole) {
+		for (int i = 0; i < ANNOTATIONS; i++) {
+			ConstraintSlot slot = converters.slotFor(names[i]);
+			blackhole.consume(converters.converterFor(slot));
+		}
+	}
+
+	@Benchmark
+	public void convert(Blackhole blackhole) {
+		for (int i = 0; i < ANNOTATIONS; i++) {
+			ConstraintSlot slot = converters.slotFor(names[i]);
+			Constraints constraints = new Constraints();
+			converters.converterFor(slot).addConstraint(slot, values[i], constraints);
+			blackhole.consume(constraints);
+		}
+	}
+
+}
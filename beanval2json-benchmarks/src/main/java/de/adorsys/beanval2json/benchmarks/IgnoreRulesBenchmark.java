@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.IgnoreRules;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.testsupport.SyntheticModel;
+
+/**
+ * Measures ConverterContext.ignoreProperty for the properties of a synthetic model
+ * @author Florian Hirsch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(IgnoreRulesBenchmark.PROPERTIES)
+public class IgnoreRulesBenchmark {
+
+	static final int PROPERTIES = 10000;
+
+	@Param({ "10", "100", "1000" })
+	public int rules;
+
+	private String[] types;
+
+	private String[] propertyNames;
+
+	private ConverterContext ctx;
+
+	@Setup
+	public void setUp() throws ProcessingException {
+		SyntheticModel model = SyntheticModel.withFields(PROPERTIES);
+		List<String> names = model.getPropertyNames();
+		propertyNames = names.toArray(new String[PROPERTIES]);
+		types = new String[PROPERTIES];
+		for (int i = 0; i < PROPERTIES; i++) {
+			types[i] = propertyNames[i].substring(0, propertyNames[i].lastIndexOf('.'));
+		}
+		ctx = new ConverterContext(null, null, null, IgnoreRules.compile(model.ignoreRules(rules)));
+	}
+
+	/**
+	 * as called by the processor with the enclosing type
+	 */
+	@Benchmark
+	public void ignorePropertyOfType(Blackhole blackhole) {
+		for (int i = 0; i < PROPERTIES; i++) {
+			blackhole.consume(ctx.ignoreProperty(types[i], propertyNames[i]));
+		}
+	}
+
+	@Benchmark
+	public void ignoreProperty(Blackhole blackhole) {
+		for (int i = 0; i < PROPERTIES; i++) {
+			blackhole.consume(ctx.ignoreProperty(propertyNames[i]));
+		}
+	}
+
+}
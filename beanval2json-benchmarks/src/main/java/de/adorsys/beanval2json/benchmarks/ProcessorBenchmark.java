@@ -0,0 +1,115 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.testsupport.ModelCompiler;
+import de.adorsys.beanval2json.testsupport.SyntheticModel;
+
+/**
+ * Runs the BeanvalAnnotationProcessor with the in-process JavaCompiler on a synthetic model.
+ * The sources are only parsed and processed (-proc:only), baseline measures the same without the processor,
+ * so the difference is the cost of the processor.
+ * @author Florian Hirsch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ProcessorBenchmark {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	@Param({ "1000", "10000", "100000" })
+	public int fields;
+
+	@Param({ "0", "100", "1000" })
+	public int ignoreRules;
+
+	private File directory;
+
+	private ModelCompiler compiler;
+
+	@Setup
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("beanval2json-benchmark").toFile();
+		SyntheticModel model = SyntheticModel.withFields(fields);
+		List<File> files = model.writeSources(new File(directory, "src"));
+		List<String> options = new ArrayList<>();
+		if (ignoreRules > 0) {
+			File ignoreFile = new File(directory, "ignore.txt");
+			Files.write(ignoreFile.toPath(), model.ignoreRules(ignoreRules), UTF_8);
+			options.add(String.format("-A%s=%s", BeanvalAnnotationProcessor.OPTION_IGNORE_FILE, ignoreFile.getPath()));
+		}
+		compiler = new ModelCompiler(files, new File(directory, "output"), options.toArray(new String[options.size()]));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		compiler.close();
+		Files.walkFileTree(directory.toPath(), new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	@Benchmark
+	public void process() {
+		compiler.compile(new BeanvalAnnotationProcessor());
+	}
+
+	@Benchmark
+	public void baseline() {
+		compiler.compile();
+	}
+
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.benchmarks;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.adorsys.beanval2json.ConstraintsWriter;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Measures writing the constraints as JSON in all formats and encodings
+ * @author Florian Hirsch
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+	@Param({ "1000", "10000" })
+	public int properties;
+
+	@Param({ ConstraintsWriter.FORMAT_PRETTY, ConstraintsWriter.FORMAT_COMPACT })
+	public String format;
+
+	@Param({ ConstraintsWriter.ENCODING_PLAIN, ConstraintsWriter.ENCODING_DICTIONARY })
+	public String encoding;
+
+	private Map<String, Constraints> constraints;
+
+	private ConstraintsWriter constraintsWriter;
+
+	@Setup
+	public void setUp() throws ProcessingException {
+		constraints = SyntheticAnnotations.constraints(properties);
+		constraintsWriter = ConstraintsWriter.forOptions(format, encoding);
+	}
+
+	/**
+	 * @return the number of written characters
+	 */
+	@Benchmark
+	public long write() throws IOException {
+		CountingWriter writer = new CountingWriter();
+		constraintsWriter.write(constraints, writer);
+		return writer.count;
+	}
+
+	/**
+	 * Counts the characters instead of storing them
+	 */
+	private static class CountingWriter extends Writer {
+
+		private long count;
+
+		@Override
+		public void write(char[] buffer, int offset, int length) {
+			count += length;
+		}
+
+		@Override
+		public void write(String string, int offset, int length) {
+			count += length;
+		}
+
+		@Override
+		public void flush() {
+		}
+
+		@Override
+		public void close() {
+		}
+
+	}
+
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.converter.AnnotationValues;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
+import de.adorsys.beanval2json.testsupport.SyntheticModel;
+
+/**
+ * The values of annotations as they are read from class-files, 
+ * to convert constraints without running the compiler
+ * @author Florian Hirsch
+ */
+final class SyntheticAnnotations {
+
+	private static final String PACKAGE = "javax.validation.constraints.";
+
+	private static final String[] ANNOTATIONS = { "NotNull", "Size", "Pattern", "Min", "Max", "DecimalMin", "DecimalMax", 
+		"Digits", "Past", "Future", "AssertTrue", "AssertFalse", "Null" };
+
+	private SyntheticAnnotations() {
+	}
+
+	/**
+	 * @return the binary names of the annotations in the same order as the values
+	 */
+	static List<String> names(int count) {
+		List<String> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			result.add(PACKAGE + ANNOTATIONS[i % ANNOTATIONS.length]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the values of the annotations including all defaults
+	 */
+	static List<AnnotationValues> values(int count) {
+		List<AnnotationValues> result = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			Map<String, Object> values = new HashMap<>();
+			values.put("message", i % 2 == 0 ? "{" + PACKAGE + ANNOTATIONS[i % ANNOTATIONS.length] + ".message}" : "Please check");
+			values.put("groups", i % 3 == 0 ? Arrays.asList("javax.validation.groups.Default") : Collections.emptyList());
+			values.put("payload", Collections.emptyList());
+			values.put("min", 1 + i % 9);
+			values.put("max", 100 + i % 9);
+			values.put("value", i % 2 == 0 ? (Object) Long.valueOf(i) : String.valueOf(i));
+			if (ANNOTATIONS[i % ANNOTATIONS.length].startsWith("Decimal")) {
+				values.put("inclusive", Boolean.TRUE);
+			}
+			values.put("integer", 8);
+			values.put("fraction", 2);
+			values.put("regexp", "[a-z]{" + (1 + i % 9) + ",}");
+			values.put("flags", Arrays.asList("CASE_INSENSITIVE"));
+			result.add(AnnotationValues.of(values));
+		}
+		return result;
+	}
+
+	/**
+	 * @return the converted constraints of count properties with one constraint each
+	 */
+	static Map<String, Constraints> constraints(int count) throws ProcessingException {
+		Properties messages = new Properties();
+		messages.setProperty(PACKAGE + "NotNull.message", "may not be null");
+		ConverterRegistry converters = ConverterRegistry.withDefaultConverters(new ConverterContext(null, null, messages, null));
+		List<String> names = names(count);
+		List<AnnotationValues> values = values(count);
+		List<String> propertyNames = SyntheticModel.withFields(count).getPropertyNames();
+		Map<String, Constraints> result = new TreeMap<>();
+		for (int i = 0; i < count; i++) {
+			ConstraintSlot slot = converters.slotFor(names.get(i));
+			Constraints constraints = new Constraints();
+			converters.converterFor(slot).addConstraint(slot, values.get(i), constraints);
+			result.put(propertyNames.get(i), constraints);
+		}
+		return result;
+	}
+
+}
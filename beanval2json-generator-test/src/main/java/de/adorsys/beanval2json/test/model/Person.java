@@ -49,6 +49,9 @@ public class Person implements Serializable {
 	@NotNull
 	private String ignoredProperty;
 	
+	@NotNull
+	private String internalCode;
+	
 	@Null
 	private String shouldBeNull;
 	
@@ -126,6 +129,14 @@ public class Person implements Serializable {
 		this.ignoredProperty = ignoredProperty;
 	}
 
+	public String getInternalCode() {
+		return internalCode;
+	}
+
+	public void setInternalCode(String internalCode) {
+		this.internalCode = internalCode;
+	}
+
 	public String getShouldBeNull() {
 		return shouldBeNull;
 	}
@@ -7,8 +7,9 @@
 	 * - @Size: minlength and maxlength attributes will be added to the input-field.
 	 *   NOTE: most browsers will just cut off everything after maxlength is reached and
 	 *   won't validate here
-	 * - @Pattern: The regexp-value will be added as pattern-attribute and a custom
-	 *   error-message will be shown if defined 
+	 * - @Pattern: The regexp translated to JavaScript will be added as pattern-attribute and a custom
+	 *   error-message will be shown if defined. As the pattern-attribute has no flags, patterns with flags
+	 *   are checked with the RegExp compiled once by beanval2json.regExp on each input instead.
 	 * - @Min and @Max: value will be used for min/max-Attribute and a custom
 	 *   error-message will be shown if defined. 
 	 *   NOTE: Will only work on input type=number
@@ -40,9 +41,14 @@
 					input.setAttribute('minlength', constraint.min);
 				}
 			},
-			pattern : function(input, constraint) {
-				if (constraint.regexp) {
-					input.setAttribute('pattern', constraint.regexp);
+			pattern : function(input, constraint, property) {
+				if (constraint.jsFlags) {
+					input.beanvalPattern = beanval2json.regExp(property, constraint);
+					input.addEventListener('input', function() {
+						checkPattern(input);
+					});
+				} else if (constraint.regexp) {
+					input.setAttribute('pattern', constraint.jsRegexp || constraint.regexp);
 				}
 				addMessage(input, constraint, 'data-err-pattern-mismatch');
 			},
@@ -80,6 +86,14 @@
 			addMessage(input, constraint, type === 'min' ? 'data-err-range-underflow' : 'data-err-range-overflow');
 		};
 		
+		/**
+		 * sets the custom validity of inputs with a pattern with flags
+		 */
+		var checkPattern = function(input) {
+			var valid = !input.value || input.beanvalPattern.test(input.value);
+			input.setCustomValidity(valid ? '' : input.getAttribute('data-err-pattern-mismatch') || 'Please match the requested format.');
+		};
+		
 		var addMessage = function(input, constraint, attribute) {
 			if (constraint.message) {
 				input.setAttribute(attribute, constraint.message);
@@ -95,7 +109,7 @@
 				var constraints = data[property];				
 				for (constraint in constraints) {
 					if (rules[constraint]) {
-						rules[constraint](input, constraints[constraint]);
+						rules[constraint](input, constraints[constraint], property);
 					}
 				}
 				input.oninvalid = function(e) {
@@ -106,7 +120,10 @@
 		
 		var showError = function(input) {	
 			input.setCustomValidity('');
-			if (input.validity.valid) {
+			if (input.beanvalPattern) {
+				checkPattern(input);
+			}
+			if (input.validity.valid || input.validity.customError) {
 				return;
 			}
 			for (type in input.validity) {
@@ -123,7 +140,7 @@
 			var xhr = new XMLHttpRequest();
 		    xhr.onreadystatechange = function() {
 		        if (xhr.readyState === 4 && xhr.status === 200) {
-	        		callback(JSON.parse(xhr.responseText));
+	        		callback(beanval2json.decode(JSON.parse(xhr.responseText)));
 		        }
 		    };
 		    xhr.open("GET", url, true);
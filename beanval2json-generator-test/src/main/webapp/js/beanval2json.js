@@ -0,0 +1,173 @@
+/**
+ * Client-side helpers for the JSON generated by beanval2json.
+ */
+var beanval2json = (function() {
+
+	/**
+	 * Decodes constraints written with encoding=dictionary to the
+	 * plain format. Plain constraints are returned unchanged.
+	 * Keys look like 'index:Type.property' where index points to
+	 * the package in data.strings (or is empty for keys without package),
+	 * messages are indices and groups and payload are arrays of indices of data.strings.
+	 */
+	var decode = function(data) {
+		if (!data || !data.strings || !data.constraints) {
+			return data;
+		}
+		var strings = data.strings;
+		var lookup = function(indices) {
+			var result = [];
+			for (var i = 0; i < indices.length; i++) {
+				result.push(strings[indices[i]]);
+			}
+			return result;
+		};
+		var result = {};
+		for (var key in data.constraints) {
+			var separator = key.indexOf(':');
+			var prefix = key.substring(0, separator);
+			var name = key.substring(separator + 1);
+			var constraints = data.constraints[key];
+			for (var rule in constraints) {
+				var constraint = constraints[rule];
+				if (typeof constraint.message === 'number') {
+					constraint.message = strings[constraint.message];
+				}
+				if (constraint.groups) {
+					constraint.groups = lookup(constraint.groups);
+				}
+				if (constraint.payload) {
+					constraint.payload = lookup(constraint.payload);
+				}
+			}
+			result[prefix ? strings[prefix] + '.' + name : name] = constraints;
+		}
+		return result;
+	};
+
+	/**
+	 * the RegExps of the pattern-constraints keyed by property
+	 */
+	var regExps = {};
+
+	/**
+	 * Returns the RegExp of the pattern-constraint of the given property
+	 * which matches the whole value. Each pattern is compiled only once.
+	 * The regexp and flags translated to ECMAScript by the generator (jsRegexp and jsFlags) are used.
+	 * jsRegexp is only present if the translation differs from the regexp, regexps which could
+	 * not be translated are used unchanged.
+	 */
+	var regExp = function(key, constraint) {
+		var cached = regExps[key];
+		if (cached && cached.constraint === constraint) {
+			return cached.regExp;
+		}
+		var source = constraint.jsRegexp || constraint.regexp;
+		var flags = constraint.jsFlags || '';
+		// with the flag 'm' ^ and $ would match at line-breaks as well
+		source = flags.indexOf('m') < 0 ? '^(?:' + source + ')$' : '(?<![\\s\\S])(?:' + source + ')(?![\\s\\S])';
+		var result = new RegExp(source, flags);
+		regExps[key] = { constraint : constraint, regExp : result };
+		return result;
+	};
+
+	var getJSON = function(url, callback) {
+		var xhr = new XMLHttpRequest();
+		xhr.onreadystatechange = function() {
+			if (xhr.readyState === 4 && xhr.status === 200) {
+				callback(decode(JSON.parse(xhr.responseText)));
+			}
+		};
+		xhr.open('GET', url, true);
+		xhr.send();
+	};
+
+	/**
+	 * Loads a file written with hashFilenames=true. The index.json
+	 * is requested on each call, the hashed file itself may be cached forever:
+	 * beanval2json.loadHashed('../js/index.json', 'constraints.json', function(constraints) {...});
+	 */
+	var loadHashed = function(indexUrl, filename, callback) {
+		var baseUrl = indexUrl.substring(0, indexUrl.lastIndexOf('/') + 1);
+		getJSON(indexUrl, function(index) {
+			getJSON(baseUrl + index[filename], callback);
+		});
+	};
+
+	/**
+	 * Lazy loads the constraints written with the shards-option.
+	 * The manifest is loaded once, each shard is loaded on the first
+	 * request for one of its keys:
+	 * new beanval2json.Loader('../js/constraints-manifest.json').get(key, function(constraints) {...});
+	 */
+	var Loader = function(manifestUrl) {
+		var baseUrl = manifestUrl.substring(0, manifestUrl.lastIndexOf('/') + 1);
+		var manifest = null;
+		var shards = {};
+		var waiting = [];
+
+		var shardOf = function(key) {
+			if (manifest.keys[key]) {
+				return manifest.keys[key];
+			}
+			var result = null;
+			for (var shard in manifest.shards) {
+				if (key.indexOf(shard + '.') === 0 && (!result || shard.length > result.length)) {
+					result = shard;
+				}
+			}
+			return result;
+		};
+
+		var load = function(key, callback) {
+			var shard = shardOf(key);
+			if (!shard) {
+				return callback(undefined);
+			}
+			if (!shards[shard]) {
+				shards[shard] = { data : null, callbacks : [] };
+				getJSON(baseUrl + manifest.shards[shard], function(data) {
+					shards[shard].data = data;
+					var callbacks = shards[shard].callbacks;
+					for (var i = 0; i < callbacks.length; i++) {
+						callbacks[i]();
+					}
+				});
+			}
+			if (shards[shard].data) {
+				return callback(shards[shard].data[key]);
+			}
+			shards[shard].callbacks.push(function() {
+				callback(shards[shard].data[key]);
+			});
+		};
+
+		getJSON(manifestUrl, function(data) {
+			manifest = data;
+			for (var i = 0; i < waiting.length; i++) {
+				load(waiting[i].key, waiting[i].callback);
+			}
+			waiting = [];
+		});
+
+		/**
+		 * passes the constraints of the given key to the callback
+		 * (undefined if there are no constraints for the key)
+		 */
+		this.get = function(key, callback) {
+			if (manifest) {
+				load(key, callback);
+			} else {
+				waiting.push({ key : key, callback : callback });
+			}
+		};
+	};
+
+	return {
+		decode : decode,
+		regExp : regExp,
+		loadHashed : loadHashed,
+		Loader : Loader
+	};
+
+})();
@@ -0,0 +1,83 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+
+/**
+ * Checks that the constraints of unchanged types are taken from the cacheDir
+ * @author Florian Hirsch
+ */
+public class CacheTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File cacheDir;
+
+	private List<String> options;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDir = folder.newFolder("cache");
+		options = Collections.singletonList(BeanvalAnnotationProcessor.OPTION_CACHE_DIR + "=" + cacheDir.getPath());
+	}
+
+	@Test
+	public void testUnchangedTypeFromCache() throws IOException {
+		TestCompilation compilation = compile(folder.newFolder("first"), "@NotNull private String name;");
+		assertEquals(1, cacheDir.listFiles().length);
+		File entry = cacheDir.listFiles()[0];
+		String cached = new String(Files.readAllBytes(entry.toPath()), Charset.forName("UTF-8"));
+		// a manipulated entry proves that the second compilation doesn't convert the annotation again
+		Files.write(entry.toPath(), cached.replace("notNull", "null").getBytes(Charset.forName("UTF-8")));
+		TestCompilation second = compile(folder.newFolder("second"), "@NotNull private String name;");
+		assertTrue(compilation.readConstraints().get("model.Customer.name").getAsJsonObject().has("notNull"));
+		assertTrue(second.readConstraints().get("model.Customer.name").getAsJsonObject().has("null"));
+	}
+
+	@Test
+	public void testChangedTypeIsConverted() throws IOException {
+		compile(folder.newFolder("first"), "@NotNull private String name;");
+		TestCompilation second = compile(folder.newFolder("second"), "@Size(max = 42) private String name;");
+		assertTrue(second.readConstraints().get("model.Customer.name").getAsJsonObject().has("size"));
+		assertEquals(2, cacheDir.listFiles().length);
+	}
+
+	private TestCompilation compile(File directory, String body) throws IOException {
+		TestCompilation compilation = new TestCompilation(directory);
+		compilation.writeSource("Customer", body);
+		assertTrue(compilation.compile(Arrays.asList("Customer"), options));
+		return compilation;
+	}
+
+}
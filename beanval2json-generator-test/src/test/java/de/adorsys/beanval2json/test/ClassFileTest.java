@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.jar.JarOutputStream;
+import java.util.zip.ZipEntry;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.bytecode.ClassFileGenerator;
+import de.adorsys.beanval2json.bytecode.ClassFileScanner;
+
+/**
+ * Checks that reading the compiled model creates the same constraints.json as the BeanvalAnnotationProcessor
+ * @author Florian Hirsch
+ */
+public class ClassFileTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private static final String CLASSES_DIRECTORY = "target/classes";
+
+	private static final String RESOURCES_DIRECTORY = "src/main/resources/";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSameAsProcessor() throws IOException, ProcessingException {
+		File output = folder.newFile("constraints.json");
+		ClassFileGenerator.generate(new String[] { 
+				"-mappingFile", file(RESOURCES_DIRECTORY + "mapping.properties").getPath(),
+				"-messagesFile", file(RESOURCES_DIRECTORY + "messages.properties").getPath(),
+				"-ignoreFile", file(RESOURCES_DIRECTORY + "ignore.txt").getPath(),
+				"-output", output.getPath(),
+				file(CLASSES_DIRECTORY).getPath() });
+		assertArrayEquals(Files.readAllBytes(file(CONSTRAINTS_FILENAME).toPath()), Files.readAllBytes(output.toPath()));
+	}
+
+	@Test
+	public void testJar() throws IOException, ProcessingException {
+		final Path classes = file(CLASSES_DIRECTORY).toPath();
+		File jar = folder.newFile("model.jar");
+		try (final JarOutputStream out = new JarOutputStream(Files.newOutputStream(jar.toPath()))) {
+			Files.walkFileTree(classes, new SimpleFileVisitor<Path>() {
+				@Override
+				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+					out.putNextEntry(new ZipEntry(classes.relativize(file).toString().replace(File.separatorChar, '/')));
+					Files.copy(file, (OutputStream) out);
+					out.closeEntry();
+					return FileVisitResult.CONTINUE;
+				}
+			});
+		}
+		ClassFileScanner scanner = new ClassFileScanner(null, null);
+		assertEquals(scanner.scan(classes).getConstraints().keySet(), 
+				scanner.scan(Arrays.asList(jar.toPath(), classes)).getConstraints().keySet());
+	}
+
+	private File file(String filename) {
+		return new File(System.getProperty("user.dir"), filename);
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.bytecode.ClassFileScanner;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.constraint.SizeConstraint;
+import de.adorsys.beanval2json.test.model.Person;
+
+/**
+ * Checks equals and hashCode of the constraints, which allow to deduplicate equal constraints of different properties
+ * @author Florian Hirsch
+ */
+public class ConstraintsEqualityTest {
+
+	@Test
+	public void testEqualConstraints() {
+		assertEquals(size(2, 32, "Too short"), size(2, 32, "Too short"));
+		assertEquals(size(2, 32, "Too short").hashCode(), size(2, 32, "Too short").hashCode());
+		assertNotEquals(size(2, 32, "Too short"), size(2, 33, "Too short"));
+		assertNotEquals(size(2, 32, "Too short"), size(2, 32, null));
+	}
+
+	@Test
+	public void testHashCodeChangesWithFields() {
+		SizeConstraint size = size(2, 32, "Too short");
+		int hashCode = size.hashCode();
+		size.setMax(64);
+		assertNotEquals(hashCode, size.hashCode());
+		assertEquals(size(2, 64, "Too short").hashCode(), size.hashCode());
+	}
+
+	@Test
+	public void testDeduplicateModel() throws IOException, ProcessingException {
+		Map<String, Constraints> constraints = new ClassFileScanner(null, null)
+				.scan(new File(System.getProperty("user.dir"), "target/classes").toPath()).getConstraints();
+		// notNull without message and groups is used by multiple properties of the Person
+		assertEquals(constraints.get(Person.class.getName() + ".internalCode"), constraints.get(Person.class.getName() + ".ignoredProperty"));
+		Set<Constraints> distinct = new HashSet<>(constraints.values());
+		assertTrue(distinct.size() < constraints.size());
+	}
+
+	private SizeConstraint size(int min, int max, String message) {
+		SizeConstraint size = new SizeConstraint();
+		size.setMin(min);
+		size.setMax(max);
+		size.setMessage(message);
+		size.setGroups(Arrays.asList("com.example.Groups.User"));
+		return size;
+	}
+
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.servlet.ServletConfig;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.runtime.ConstraintsServlet;
+
+/**
+ * Checks that the ConstraintsServlet serves the same constraints as the BeanvalAnnotationProcessor
+ * writes and answers requests with a matching ETag with 304
+ * @author Florian Hirsch
+ */
+public class ConstraintsServletTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private ConstraintsServlet servlet;
+
+	@Before
+	public void setUp() throws ServletException {
+		Map<String, String> initParameters = new HashMap<>();
+		initParameters.put(ConstraintsServlet.PARAM_PATHS, "/classes");
+		initParameters.put(BeanvalAnnotationProcessor.OPTION_MAPPING_FILE, "mapping.properties");
+		initParameters.put(BeanvalAnnotationProcessor.OPTION_MESSAGES_FILE, "messages.properties");
+		initParameters.put(BeanvalAnnotationProcessor.OPTION_IGNORE_FILE, "ignore.txt");
+		servlet = new ConstraintsServlet();
+		servlet.init(servletConfig(initParameters));
+	}
+
+	@Test
+	public void testGzip() throws Exception {
+		Response response = get("gzip, deflate", null);
+		assertEquals(HttpServletResponse.SC_OK, response.status);
+		assertEquals("gzip", response.headers.get("Content-Encoding"));
+		assertArrayEquals(Files.readAllBytes(file(CONSTRAINTS_FILENAME).toPath()), gunzip(response.body.toByteArray()));
+	}
+
+	@Test
+	public void testNotModified() throws Exception {
+		String eTag = get(null, null).headers.get("ETag");
+		assertTrue(eTag.startsWith("\""));
+		Response response = get(null, eTag);
+		assertEquals(HttpServletResponse.SC_NOT_MODIFIED, response.status);
+		assertEquals(0, response.body.size());
+		// the gzipped variant has its own ETag
+		assertEquals(HttpServletResponse.SC_OK, get("gzip", eTag).status);
+	}
+
+	private Response get(String acceptEncoding, String ifNoneMatch) throws Exception {
+		final Map<String, String> requestHeaders = new HashMap<>();
+		requestHeaders.put("Accept-Encoding", acceptEncoding);
+		requestHeaders.put("If-None-Match", ifNoneMatch);
+		HttpServletRequest request = proxy(HttpServletRequest.class, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				switch (method.getName()) {
+				case "getMethod":
+					return "GET";
+				case "getHeader":
+					return requestHeaders.get(args[0]);
+				default:
+					return null;
+				}
+			}
+		});
+		Response response = new Response();
+		servlet.service(request, proxy(HttpServletResponse.class, response));
+		return response;
+	}
+
+	private ServletConfig servletConfig(final Map<String, String> initParameters) {
+		final ServletContext context = proxy(ServletContext.class, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				return "getRealPath".equals(method.getName()) ? file("target" + args[0]).getPath() : null;
+			}
+		});
+		return proxy(ServletConfig.class, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+				switch (method.getName()) {
+				case "getInitParameter":
+					return initParameters.get(args[0]);
+				case "getServletContext":
+					return context;
+				default:
+					return null;
+				}
+			}
+		});
+	}
+
+	private byte[] gunzip(byte[] content) throws IOException {
+		try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(content))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		}
+	}
+
+	private File file(String filename) {
+		return new File(System.getProperty("user.dir"), filename);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(ConstraintsServletTest.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	/**
+	 * Records what is written to the HttpServletResponse
+	 */
+	private static class Response implements InvocationHandler {
+
+		private int status = HttpServletResponse.SC_OK;
+
+		private final Map<String, String> headers = new HashMap<>();
+
+		private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) {
+			switch (method.getName()) {
+			case "setStatus":
+				status = (Integer) args[0];
+				return null;
+			case "setHeader":
+				headers.put((String) args[0], (String) args[1]);
+				return null;
+			case "getOutputStream":
+				return new ServletOutputStream() {
+					@Override
+					public void write(int b) {
+						body.write(b);
+					}
+				};
+			default:
+				return null;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+/**
+ * Checks the format written with format=compact and encoding=dictionary against the plain constraints:
+ * the package of each key and the messages, groups and payloads are indices into the strings-table.
+ * The decoder of webapp/js/beanval2json.js relies on this format, it is not run by this test.
+ * @author Florian Hirsch
+ */
+public class DictionaryEncodingTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private static final String DICTIONARY_FILENAME = "target/beanval2json-dictionary/constraints.json";
+
+	/** the index of the package, ':' and 'Type.property' or ':' and a key without package */
+	private static final Pattern KEY = Pattern.compile("(\\d*):([^.:]+(\\.[^.]+)?)");
+
+	@Test
+	public void testKeys() throws IOException {
+		JsonObject plain = read(CONSTRAINTS_FILENAME);
+		JsonObject encoded = read(DICTIONARY_FILENAME);
+		JsonArray strings = encoded.getAsJsonArray("strings");
+		Set<String> keys = new HashSet<>();
+		for (Entry<String, JsonElement> entry : encoded.getAsJsonObject("constraints").entrySet()) {
+			String name = plainKey(entry.getKey(), strings);
+			assertTrue(name, plain.has(name));
+			keys.add(name);
+		}
+		assertEquals(plain.entrySet().size(), keys.size());
+	}
+
+	@Test
+	public void testIndices() throws IOException {
+		JsonObject plain = read(CONSTRAINTS_FILENAME);
+		JsonObject encoded = read(DICTIONARY_FILENAME);
+		JsonArray strings = encoded.getAsJsonArray("strings");
+		assertEquals("each string is stored once", new HashSet<>(toList(strings)).size(), strings.size());
+		int messages = 0;
+		for (Entry<String, JsonElement> entry : encoded.getAsJsonObject("constraints").entrySet()) {
+			String name = plainKey(entry.getKey(), strings);
+			JsonObject plainConstraints = plain.getAsJsonObject(name);
+			for (Entry<String, JsonElement> rule : entry.getValue().getAsJsonObject().entrySet()) {
+				JsonObject constraint = rule.getValue().getAsJsonObject();
+				JsonObject plainConstraint = plainConstraints.getAsJsonObject(rule.getKey());
+				for (Entry<String, JsonElement> value : constraint.entrySet()) {
+					switch (value.getKey()) {
+					case "message":
+						assertEquals(plainConstraint.get("message").getAsString(), strings.get(value.getValue().getAsInt()).getAsString());
+						messages++;
+						break;
+					case "groups":
+					case "payload":
+						JsonArray values = new JsonArray();
+						for (JsonElement index : value.getValue().getAsJsonArray()) {
+							values.add(strings.get(index.getAsInt()));
+						}
+						assertEquals(plainConstraint.get(value.getKey()), values);
+						break;
+					default:
+						assertEquals(plainConstraint.get(value.getKey()), value.getValue());
+					}
+				}
+				assertEquals(plainConstraint.entrySet().size(), constraint.entrySet().size());
+			}
+		}
+		assertTrue(messages > 0);
+	}
+
+	@Test
+	public void testCompact() throws IOException {
+		String json = new String(Files.readAllBytes(new File(System.getProperty("user.dir"), DICTIONARY_FILENAME).toPath()), "UTF-8");
+		assertFalse(json.contains("\n"));
+	}
+
+	/**
+	 * @return the key with the index of the package replaced by the package
+	 */
+	private String plainKey(String encodedKey, JsonArray strings) {
+		Matcher key = KEY.matcher(encodedKey);
+		assertTrue(encodedKey, key.matches());
+		return key.group(1).isEmpty() ? key.group(2) : strings.get(Integer.parseInt(key.group(1))).getAsString() + "." + key.group(2);
+	}
+
+	private List<String> toList(JsonArray array) {
+		List<String> result = new ArrayList<>();
+		for (JsonElement element : array) {
+			result.add(element.getAsString());
+		}
+		return result;
+	}
+
+	private JsonObject read(String filename) throws IOException {
+		byte[] json = Files.readAllBytes(new File(System.getProperty("user.dir"), filename).toPath());
+		return new Gson().fromJson(new String(json, Charset.forName("UTF-8")), JsonObject.class);
+	}
+
+}
@@ -139,7 +139,10 @@ public class GeneratorTest {
 			}
 			if (entry.getKey().equals("de.adorsys.beanval2json.test.model.Person.ignoredProperty")) {
 				fail("de.adorsys.beanval2json.test.model.Person.ignoredProperty should be ignored!");
-			}			
+			}
+			if (entry.getKey().equals("de.adorsys.beanval2json.test.model.Person.internalCode")) {
+				fail("de.adorsys.beanval2json.test.model.Person.internalCode should be ignored!");
+			}
 		}
 	}	
 	
@@ -0,0 +1,61 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.adorsys.beanval2json.IgnoreRules;
+import de.adorsys.beanval2json.ProcessingException;
+
+/**
+ * Checks rules which can't be combined to one Pattern
+ * @author Florian Hirsch
+ */
+public class IgnoreRulesTest {
+
+	@Test
+	public void testDuplicateGroupNames() throws ProcessingException {
+		IgnoreRules rules = IgnoreRules.compile(Arrays.asList("(?<x>foo)\\.a", "(?<x>bar)\\.b", "baz.*\\.c"));
+		assertTrue(rules.matches("foo.a"));
+		assertTrue(rules.matches("bar.b"));
+		assertTrue(rules.matches("bazz.c"));
+		assertFalse(rules.matches("foo.b"));
+	}
+
+	@Test
+	public void testUnterminatedQuotation() throws ProcessingException {
+		IgnoreRules rules = IgnoreRules.compile(Arrays.asList("\\Qcom.a", "org\\..*\\.b"));
+		assertTrue(rules.matches("com.a"));
+		assertFalse(rules.matches("comXa"));
+		assertTrue(rules.matches("org.x.b"));
+		assertTrue(rules.matches("org.x", "org.x.b"));
+	}
+
+	@Test
+	public void testCommentsFlag() throws ProcessingException {
+		// the comment would swallow the following rules within the combined Pattern
+		IgnoreRules rules = IgnoreRules.compile(Arrays.asList("(?x) foo .* # comment", "bar.+"));
+		assertTrue(rules.matches("foo.a"));
+		assertTrue(rules.matches("bar.b"));
+		assertFalse(rules.matches("baz.c"));
+	}
+
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+
+/**
+ * Compiles only some types of a model with incremental=true
+ * and checks that the constraints of the other types are kept
+ * @author Florian Hirsch
+ */
+public class IncrementalTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final List<String> OPTIONS = Collections.singletonList(BeanvalAnnotationProcessor.OPTION_INCREMENTAL + "=true");
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private TestCompilation compilation;
+
+	@Before
+	public void setUp() throws IOException {
+		compilation = new TestCompilation(folder.getRoot());
+		compilation.writeSource("Address", "@NotNull private String street;");
+		compilation.writeSource("Customer", "@NotNull private String name;");
+		assertTrue(compilation.compile(Arrays.asList("Address", "Customer"), OPTIONS));
+	}
+
+	@Test
+	public void testChangedTypeIsReplaced() throws IOException {
+		compilation.writeSource("Customer", "@NotNull private String firstName;");
+		assertTrue(compilation.compile(Arrays.asList("Customer"), OPTIONS));
+		JsonObject constraints = compilation.readConstraints();
+		assertTrue(constraints.has("model.Address.street"));
+		assertTrue(constraints.has("model.Customer.firstName"));
+		assertFalse(constraints.has("model.Customer.name"));
+	}
+
+	@Test
+	public void testDeletedTypeIsDropped() throws IOException {
+		compilation.deleteType("Address");
+		assertTrue(compilation.compile(Arrays.asList("Customer"), OPTIONS));
+		JsonObject constraints = compilation.readConstraints();
+		assertFalse(constraints.has("model.Address.street"));
+		assertTrue(constraints.has("model.Customer.name"));
+	}
+
+	@Test
+	public void testChangedSettingsRequireFullRebuild() throws IOException {
+		File ignoreFile = folder.newFile("ignore.txt");
+		Files.write(ignoreFile.toPath(), Collections.singletonList("model.Other.*"), UTF_8);
+		List<String> options = Arrays.asList(OPTIONS.get(0), BeanvalAnnotationProcessor.OPTION_IGNORE_FILE + "=" + ignoreFile.getPath());
+		assertTrue(compilation.compile(Arrays.asList("Customer"), options));
+		// the constraints of Address were created with other settings
+		assertTrue(compilation.getWarnings().toString().contains("like model.Address are missing, a full rebuild is required"));
+		assertFalse(compilation.readConstraints().has("model.Address.street"));
+
+		assertTrue(compilation.compile(Arrays.asList("Address", "Customer"), options));
+		assertFalse(compilation.getWarnings().toString().contains("a full rebuild is required"));
+		assertTrue(compilation.readConstraints().has("model.Address.street"));
+	}
+
+}
@@ -0,0 +1,74 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.bytecode.ClassFileScanner;
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Measures the number of group- and payload-lists kept in memory for a model 
+ * where all properties use the same groups
+ * @author Florian Hirsch
+ */
+public class InterningTest {
+
+	private static final int PROPERTIES = 500;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSharedLists() throws IOException, ProcessingException {
+		TestCompilation compilation = new TestCompilation(folder.getRoot());
+		StringBuilder body = new StringBuilder("public interface Create {} public interface Update {}");
+		for (int i = 0; i < PROPERTIES; i++) {
+			body.append(String.format("@NotNull(groups = { Create.class, Update.class }) @Size(max = %d, groups = { Create.class, Update.class }, "
+					+ "payload = { javax.validation.Payload.class }) private String property%d;", i, i));
+		}
+		compilation.writeSource("Form", body.toString());
+		assertTrue(compilation.compile(Collections.singletonList("Form"), Collections.<String>emptyList()));
+
+		Map<String, Constraints> constraints = new ClassFileScanner(null, null).scan(compilation.getClasses().toPath()).getConstraints();
+		assertEquals(PROPERTIES, constraints.size());
+		Map<List<String>, Boolean> lists = new IdentityHashMap<>();
+		for (Constraints property : constraints.values()) {
+			for (Constraint constraint : new Constraint[] { property.getNotNull(), property.getSize() }) {
+				lists.put(constraint.getGroups(), Boolean.TRUE);
+				if (constraint.getPayload() != null) {
+					lists.put(constraint.getPayload(), Boolean.TRUE);
+				}
+			}
+		}
+		// one list of groups and one of payloads instead of three per property
+		assertEquals(2, lists.size());
+	}
+
+}
@@ -0,0 +1,76 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.converter.MessageResolver;
+
+/**
+ * Checks the interpolation of the messages with the messages-file and the attributes of the constraints
+ * @author Florian Hirsch
+ */
+public class MessageInterpolationTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testInterpolation() throws IOException {
+		TestCompilation compilation = new TestCompilation(folder.getRoot());
+		compilation.writeSource("Order", 
+				"@Size(min = 2, max = 32, message = \"between {min} and {max}\") private String name;"
+				+ "@Min(value = 5, message = \"at least {value}\") private int amount;"
+				+ "@Pattern(regexp = \"[a-z]+\", message = \"\\\\{regexp\\\\} is {regexp}\") private String code;"
+				+ "@Past(message = \"{javax.validation.constraints.Past.message}, see {unknown}\") private java.util.Date date;"
+				+ "@NotNull(message = \"{unknown.key}\") private String id;");
+		assertTrue(compilation.compile(Collections.singletonList("Order"), 
+				Collections.singletonList(BeanvalAnnotationProcessor.OPTION_MESSAGES_FILE + "=messages.properties")));
+		JsonObject constraints = compilation.readConstraints();
+		assertEquals("between 2 and 32", message(constraints, "name", "size"));
+		assertEquals("at least 5", message(constraints, "amount", "min"));
+		assertEquals("{regexp} is [a-z]+", message(constraints, "code", "pattern"));
+		assertEquals("The date should be in the past, see {unknown}", message(constraints, "date", "past"));
+		assertFalse(constraints.getAsJsonObject("model.Order.id").getAsJsonObject("notNull").has("message"));
+	}
+
+	@Test
+	public void testMessagesAreInterned() {
+		MessageResolver resolver = new MessageResolver(null);
+		String message = resolver.resolve("at least {value}", Collections.singletonMap("value", 5));
+		assertSame(message, resolver.resolve("at least {value}", Collections.singletonMap("value", "5")));
+		assertNotSame(message, new MessageResolver(null).resolve("at least {value}", Collections.singletonMap("value", 5)));
+	}
+
+	private String message(JsonObject constraints, String property, String constraint) {
+		return constraints.getAsJsonObject("model.Order." + property).getAsJsonObject(constraint).get("message").getAsString();
+	}
+
+}
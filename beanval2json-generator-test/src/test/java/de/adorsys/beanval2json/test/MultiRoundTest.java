@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Checks that constraints of sources generated by other processors
+ * in later rounds are written together with the ones of the first round
+ * @author Florian Hirsch
+ */
+public class MultiRoundTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGeneratedSources() throws IOException {
+		TestCompilation compilation = new TestCompilation(folder.getRoot());
+		compilation.writeSource("Customer", "@NotNull private String name;");
+		assertTrue(compilation.compile(Arrays.asList("Customer"), Collections.<String> emptyList(), new GeneratingProcessor()));
+		JsonObject constraints = compilation.readConstraints();
+		assertTrue(constraints.has("model.Customer.name"));
+		assertTrue(constraints.has("model.GeneratedAddress.street"));
+	}
+
+	/**
+	 * generates an annotated type in the first round
+	 */
+	@SupportedAnnotationTypes("*")
+	private static class GeneratingProcessor extends AbstractProcessor {
+
+		private boolean generated;
+
+		@Override
+		public SourceVersion getSupportedSourceVersion() {
+			return SourceVersion.latestSupported();
+		}
+
+		@Override
+		public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+			if (generated) {
+				return false;
+			}
+			generated = true;
+			String type = TestCompilation.PACKAGE + ".GeneratedAddress";
+			try (Writer writer = processingEnv.getFiler().createSourceFile(type).openWriter()) {
+				writer.write(TestCompilation.source("GeneratedAddress", "@Size(max = 42) private String street;"));
+			} catch (IOException ex) {
+				throw new IllegalStateException(ex);
+			}
+			return false;
+		}
+
+	}
+
+}
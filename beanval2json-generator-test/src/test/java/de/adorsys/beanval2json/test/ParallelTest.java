@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.testsupport.ModelCompiler;
+import de.adorsys.beanval2json.testsupport.SyntheticModel;
+
+/**
+ * Checks that parallel=true writes exactly the same file as the sequential mode
+ * @author Florian Hirsch
+ */
+public class ParallelTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private static final String PARALLEL_FILENAME = "target/beanval2json-parallel/constraints.json";
+
+	/** more constraints than converted by one task of the parallel conversion */
+	private static final int SPLIT_FIELDS = 2000;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testSameOutput() throws IOException {
+		assertArrayEquals(read(CONSTRAINTS_FILENAME), read(PARALLEL_FILENAME));
+	}
+
+	@Test
+	public void testSameOutputOfSplitConversion() throws IOException {
+		SyntheticModel model = new SyntheticModel(20, SPLIT_FIELDS / 20);
+		model.setGroups(3);
+		List<File> sources = model.writeSources(folder.newFolder("src"));
+		File sequential = folder.newFolder("sequential");
+		File parallel = folder.newFolder("parallel");
+		try (ModelCompiler compiler = new ModelCompiler(sources, sequential)) {
+			compiler.compile(new BeanvalAnnotationProcessor());
+		}
+		try (ModelCompiler compiler = new ModelCompiler(sources, parallel, "-A" + BeanvalAnnotationProcessor.OPTION_PARALLEL + "=true")) {
+			compiler.compile(new BeanvalAnnotationProcessor());
+		}
+		byte[] expected = read(new File(sequential, "constraints.json"));
+		assertTrue(expected.length > SPLIT_FIELDS);
+		assertArrayEquals(expected, read(new File(parallel, "constraints.json")));
+	}
+
+	@Test
+	public void testPoolIsShutDownAfterErrors() throws IOException, InterruptedException {
+		Set<Thread> threadsBefore = getPoolThreads();
+		TestCompilation compilation = new TestCompilation(folder.newFolder("compilation"));
+		compilation.writeSource("Customer", "@NotNull private String name;");
+		assertFalse(compilation.compile(Arrays.asList("Customer"), Arrays.asList(BeanvalAnnotationProcessor.OPTION_PARALLEL + "=true"), 
+				new FailingProcessor()));
+		// the threads of a shut down pool terminate asynchronously
+		Set<Thread> remaining = getPoolThreads();
+		for (int i = 0; i < 50 && !threadsBefore.containsAll(remaining); i++) {
+			Thread.sleep(100);
+			remaining = getPoolThreads();
+		}
+		remaining.removeAll(threadsBefore);
+		assertTrue(remaining.toString(), remaining.isEmpty());
+	}
+
+	private Set<Thread> getPoolThreads() {
+		Set<Thread> result = new HashSet<>();
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			if (thread.getName().startsWith("ForkJoinPool-") && thread.isAlive()) {
+				result.add(thread);
+			}
+		}
+		return result;
+	}
+
+	private byte[] read(String filename) throws IOException {
+		return read(new File(System.getProperty("user.dir"), filename));
+	}
+
+	private byte[] read(File file) throws IOException {
+		return Files.readAllBytes(file.toPath());
+	}
+
+	/**
+	 * reports an error in the first round, so the last round is processed with errorRaised
+	 */
+	@SupportedAnnotationTypes("*")
+	private static class FailingProcessor extends AbstractProcessor {
+
+		@Override
+		public SourceVersion getSupportedSourceVersion() {
+			return SourceVersion.latestSupported();
+		}
+
+		@Override
+		public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+			if (!roundEnv.processingOver()) {
+				processingEnv.getMessager().printMessage(Kind.ERROR, "failing on purpose");
+			}
+			return false;
+		}
+
+	}
+
+}
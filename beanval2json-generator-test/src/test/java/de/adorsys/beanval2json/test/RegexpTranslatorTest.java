@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.adorsys.beanval2json.converter.RegexpTranslator;
+import de.adorsys.beanval2json.converter.RegexpTranslator.Translation;
+
+/**
+ * Checks the translation of Java-regexps to ECMAScript
+ * @author Florian Hirsch
+ */
+public class RegexpTranslatorTest {
+
+	private final RegexpTranslator translator = new RegexpTranslator();
+
+	@Test
+	public void testFlags() {
+		assertTranslation("[a-z]+", "", "[a-z]+");
+		assertTranslation("[a-z]+", "i", "[a-z]+", "CASE_INSENSITIVE");
+		assertTranslation("[a-z]+", "imsu", "[a-z]+", "CASE_INSENSITIVE", "MULTILINE", "DOTALL", "UNICODE_CASE");
+		assertTranslation("a.b", "i", "(?i)a.b");
+		assertTranslation("ab[c] ", "", "a b # comment\n[ c ]\\ ", "COMMENTS");
+		assertTranslation("a[^\\n]", "", "a.", "UNIX_LINES");
+	}
+
+	@Test
+	public void testSyntax() {
+		assertTranslation("a\\.b\\+c\\{d", "", "\\Qa.b+c{d\\E");
+		assertTranslation("[a-z]\\x07\\x1B\\xE4\\x0A", "", "[a-z]\\a\\e\\x{e4}\\012");
+		assertTranslation("\\u{1F600}", "u", "\\x{1F600}");
+		assertTranslation("[a-zA-Z0-9_]+[0-9a-fA-F]", "", "[\\p{Alnum}_]+\\p{XDigit}");
+		assertTranslation("\\p{Lu}\\P{L}\\p{Script=Latin}", "u", "\\p{Lu}\\P{IsL}\\p{IsLatin}");
+		assertTranslation("(?<![\\s\\S])a:b-c(?![\\s\\S])", "", "\\Aa\\:b\\-c\\z");
+		assertTranslation("(?<year>\\d{4})-\\k<year>\\1", "", "(?<year>\\d{4})-\\k<year>\\1");
+		assertTranslation("a{2,}?b\\}", "", "a{2,}?b}");
+	}
+
+	@Test
+	public void testUntranslatable() {
+		assertUntranslatable("a++");
+		assertUntranslatable("(?>ab)c");
+		assertUntranslatable("a(?i)b");
+		assertUntranslatable("[a-z&&[^aeiou]]");
+		assertUntranslatable("\\p{javaLowerCase}");
+		assertUntranslatable("[a-z", "invalid");
+		assertNull(translator.translate("a", Collections.singletonList("CANON_EQ")).getRegexp());
+		assertUntranslatable("a\\b{g}", "the boundary");
+	}
+
+	@Test
+	public void testCaseInsensitiveWithoutUnicodeCase() {
+		// Java folds only ASCII-characters, 'i' in ECMAScript folds all
+		assertUntranslatable("(?i)\u00e4", "CASE_INSENSITIVE");
+		assertUntranslatable("(?i)[\\xC0-\\xDF]", "CASE_INSENSITIVE");
+		assertUntranslatable("(?i)\\u00E4", "CASE_INSENSITIVE");
+		assertUntranslatable("(?i)\\p{Lu}", "CASE_INSENSITIVE");
+		assertTranslation("\u00e4", "iu", "(?iu)\u00e4");
+		assertTranslation("[a-z\\\\]\\u0041", "i", "(?i)[a-z\\\\]\\u0041");
+	}
+
+	private void assertTranslation(String expected, String expectedFlags, String regexp, String... flags) {
+		List<String> flagList = Arrays.asList(flags);
+		Translation translation = translator.translate(regexp, flagList);
+		assertNull(translation.getProblem(), translation.getProblem());
+		assertEquals(expected, translation.getRegexp());
+		assertEquals(expectedFlags, translation.getFlags());
+	}
+
+	private void assertUntranslatable(String regexp, String... problem) {
+		Translation translation = translator.translate(regexp, null);
+		assertNull(translation.getRegexp());
+		assertNotNull(translation.getProblem());
+		if (problem.length > 0) {
+			assertEquals(true, translation.getProblem().startsWith(problem[0]));
+		}
+	}
+
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import javax.annotation.processing.Filer;
+import javax.tools.FileObject;
+
+import org.junit.Test;
+
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.ResourceContent;
+import de.adorsys.beanval2json.ResourceHandler;
+
+/**
+ * Checks the streams of the ResourceHandler with a Filer writing to memory
+ * @author Florian Hirsch
+ */
+public class ResourceHandlerTest {
+
+	private static final String GZIP_EXTENSION = ".gz";
+
+	private final Map<String, RecordingStream> files = new HashMap<>();
+
+	private boolean failGzip;
+
+	/** more than the buffers of the writers hold */
+	private static final int LARGE_CONTENT = 4 * 1024 * 1024;
+
+	private static final int MAX_BUFFERED = 64 * 1024;
+
+	/** the bytes which reached the files when the content was completely written, per serialization */
+	private final List<Long> streamedBytes = new ArrayList<>();
+
+	@Test
+	public void testHashedFileIsStreamed() throws IOException, ProcessingException {
+		String filename = new ResourceHandler(filer(), true, true).writeResource("constraints.json", content(LARGE_CONTENT));
+		assertTrue(filename, filename.matches("constraints\\.[0-9a-f]{16}\\.json"));
+		// the digest is streamed without writing to a file, then the file is written while the content is serialized,
+		// so the document is never held in memory as a whole
+		assertEquals(2, streamedBytes.size());
+		assertEquals(0, streamedBytes.get(0).longValue());
+		assertTrue(String.valueOf(streamedBytes.get(1)), streamedBytes.get(1) >= LARGE_CONTENT - MAX_BUFFERED);
+		assertEquals(LARGE_CONTENT, files.get(filename).size());
+		assertEquals(LARGE_CONTENT, gunzip(files.get(filename + GZIP_EXTENSION).toByteArray()).length());
+	}
+
+	@Test
+	public void testSameContentSameFilename() throws ProcessingException {
+		String first = new ResourceHandler(filer(), true, false).writeResource("constraints.json", content("{\"a\":{}}"));
+		String second = new ResourceHandler(filer(), true, false).writeResource("constraints.json", content("{\"a\":{}}"));
+		String other = new ResourceHandler(filer(), true, false).writeResource("constraints.json", content("{\"b\":{}}"));
+		assertEquals(first, second);
+		assertFalse(first.equals(other));
+	}
+
+	@Test
+	public void testFileIsClosedIfGzipFails() {
+		failGzip = true;
+		try {
+			new ResourceHandler(filer(), false, true).writeModel(content("{}"));
+			fail("the gzipped file can't be created");
+		} catch (ProcessingException ex) {
+			assertTrue(ex.getMessage(), ex.getMessage().contains("disk full"));
+		}
+		assertTrue(files.get("constraints.json").closed);
+	}
+
+	private String gunzip(byte[] bytes) throws IOException {
+		try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+				out.write(buffer, 0, read);
+			}
+			return out.toString("UTF-8");
+		}
+	}
+
+	private ResourceContent content(final String json) {
+		return new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				writer.write(json);
+			}
+		};
+	}
+
+	/**
+	 * @return content of the given number of characters written in chunks,
+	 * which records the bytes which reached the files at its end
+	 */
+	private ResourceContent content(final int length) {
+		return new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				char[] chunk = new char[1024];
+				Arrays.fill(chunk, 'a');
+				for (int written = 0; written < length; written += chunk.length) {
+					writer.write(chunk);
+				}
+				long streamed = 0;
+				for (Map.Entry<String, RecordingStream> file : files.entrySet()) {
+					if (!file.getKey().endsWith(GZIP_EXTENSION)) {
+						streamed += file.getValue().size();
+					}
+				}
+				streamedBytes.add(streamed);
+			}
+		};
+	}
+
+	private Filer filer() {
+		return proxy(Filer.class, new InvocationHandler() {
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) throws IOException {
+				if (!"createResource".equals(method.getName())) {
+					throw new UnsupportedOperationException(method.getName());
+				}
+				final String filename = args[2].toString();
+				if (failGzip && filename.endsWith(GZIP_EXTENSION)) {
+					throw new IOException("disk full");
+				}
+				return proxy(FileObject.class, new InvocationHandler() {
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) {
+						if (!"openOutputStream".equals(method.getName())) {
+							throw new UnsupportedOperationException(method.getName());
+						}
+						RecordingStream file = new RecordingStream();
+						files.put(filename, file);
+						return file;
+					}
+				});
+			}
+		});
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+		return (T) Proxy.newProxyInstance(ResourceHandlerTest.class.getClassLoader(), new Class<?>[] { type }, handler);
+	}
+
+	/**
+	 * Records the content and whether it was closed
+	 */
+	private static class RecordingStream extends ByteArrayOutputStream {
+
+		private boolean closed;
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+	}
+
+}
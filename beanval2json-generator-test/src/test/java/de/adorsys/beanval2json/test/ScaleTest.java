@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.testsupport.ModelCompiler;
+import de.adorsys.beanval2json.testsupport.SyntheticModel;
+
+/**
+ * Runs the processor on a synthetic model of 20k fields and checks that all properties are written.
+ * With the profile 'scale' (-Dbeanval2json.scale=true) it also asserts that it takes at most 
+ * 'beanval2json.scale.maxRatio' times the time of the compiler without processor 
+ * and the heap does not grow beyond 'beanval2json.scale.maxHeapMb' megabytes.
+ * The bounds depend on the machine, so they are not checked by the default build.
+ * @author Florian Hirsch
+ */
+public class ScaleTest {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final boolean CHECK_BOUNDS = Boolean.getBoolean("beanval2json.scale");
+
+	private static final double MAX_RATIO = Double.parseDouble(System.getProperty("beanval2json.scale.maxRatio", "5"));
+
+	private static final long MAX_HEAP_MB = Long.getLong("beanval2json.scale.maxHeapMb", 1024);
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final SyntheticModel model = new SyntheticModel(1000, 20);
+
+	@Before
+	public void setUp() {
+		model.setGroups(5);
+		model.setPayloads(2);
+		model.setNestingDepth(1);
+	}
+
+	@Test
+	public void testLargeModel() throws IOException {
+		List<File> sources = model.writeSources(folder.newFolder("src"));
+		File output = folder.newFolder("output");
+		try (ModelCompiler compiler = new ModelCompiler(sources, output)) {
+			compiler.compile(new BeanvalAnnotationProcessor());
+		}
+		assertAllProperties(output);
+	}
+
+	@Test
+	public void testBounds() throws IOException {
+		Assume.assumeTrue(CHECK_BOUNDS);
+		List<File> sources = model.writeSources(folder.newFolder("src"));
+		File output = folder.newFolder("output");
+		try (ModelCompiler compiler = new ModelCompiler(sources, output)) {
+			// the first run loads the compiler
+			compiler.compile();
+			long start = System.nanoTime();
+			compiler.compile();
+			long baseline = System.nanoTime() - start;
+
+			resetPeakHeap();
+			start = System.nanoTime();
+			compiler.compile(new BeanvalAnnotationProcessor());
+			long processed = System.nanoTime() - start;
+			long peakHeapMb = getPeakHeap() / (1024 * 1024);
+
+			assertTrue(String.format("processing took %dms, the compiler alone %dms", processed / 1000000, baseline / 1000000),
+					processed <= baseline * MAX_RATIO);
+			assertTrue(String.format("peak heap of %dMB", peakHeapMb), peakHeapMb <= MAX_HEAP_MB);
+		}
+		assertAllProperties(output);
+	}
+
+	private void assertAllProperties(File output) throws IOException {
+		byte[] json = Files.readAllBytes(new File(output, "constraints.json").toPath());
+		JsonObject constraints = new Gson().fromJson(new String(json, UTF_8), JsonObject.class);
+		assertEquals(model.getFields(), constraints.entrySet().size());
+		assertTrue(constraints.has(model.getPropertyNames().get(model.getFields() - 1)));
+	}
+
+	private void resetPeakHeap() {
+		System.gc();
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				pool.resetPeakUsage();
+			}
+		}
+	}
+
+	/**
+	 * @return the sum of the peaks of all heap-pools, which is an upper bound of the peak of the heap
+	 */
+	private long getPeakHeap() {
+		long result = 0;
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP) {
+				result += pool.getPeakUsage().getUsed();
+			}
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map.Entry;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.test.model.Income;
+import de.adorsys.beanval2json.test.model.Person;
+
+/**
+ * Checks the output of shards=class with hashFilenames=true and compress=gzip
+ * @author Florian Hirsch
+ */
+public class ShardingTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private static final String SHARDS_DIRECTORY = "target/beanval2json-shards/";
+
+	private static final String INDEX_FILENAME = SHARDS_DIRECTORY + "index.json";
+
+	@Test
+	public void testShardsContainAllConstraints() throws IOException {
+		JsonObject manifest = readManifest();
+		JsonObject merged = new JsonObject();
+		for (Entry<String, JsonElement> shard : manifest.get("shards").getAsJsonObject().entrySet()) {
+			for (Entry<String, JsonElement> entry : read(SHARDS_DIRECTORY + shard.getValue().getAsString()).entrySet()) {
+				merged.add(entry.getKey(), entry.getValue());
+			}
+		}
+		assertEquals(read(CONSTRAINTS_FILENAME), merged);
+	}
+
+	@Test
+	public void testShardPerClass() throws IOException {
+		JsonObject shards = readManifest().get("shards").getAsJsonObject();
+		assertEquals(2, shards.entrySet().size());
+		JsonObject income = read(SHARDS_DIRECTORY + shards.get(Income.class.getName()).getAsString());
+		assertTrue(income.has(Income.class.getName() + ".salary"));
+		assertFalse(income.has(Person.class.getName() + ".firstname"));
+	}
+
+	@Test
+	public void testMappedKeys() throws IOException {
+		JsonObject keys = readManifest().get("keys").getAsJsonObject();
+		assertEquals(Person.class.getName(), keys.get("eMail").getAsString());
+		assertFalse(keys.has(Person.class.getName() + ".firstname"));
+	}
+
+	@Test
+	public void testHashedFilenames() throws IOException, NoSuchAlgorithmException {
+		JsonObject index = read(INDEX_FILENAME);
+		assertEquals(3, index.entrySet().size());
+		for (Entry<String, JsonElement> entry : index.entrySet()) {
+			String filename = entry.getValue().getAsString();
+			byte[] content = Files.readAllBytes(new File(System.getProperty("user.dir"), SHARDS_DIRECTORY + filename).toPath());
+			byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			String hash = String.format("%016x", new BigInteger(1, Arrays.copyOf(digest, 8)));
+			String logicalName = entry.getKey();
+			int extension = logicalName.lastIndexOf('.');
+			assertEquals(logicalName.substring(0, extension) + "." + hash + logicalName.substring(extension), filename);
+		}
+	}
+
+	@Test
+	public void testGzipSiblings() throws IOException {
+		for (Entry<String, JsonElement> entry : read(INDEX_FILENAME).entrySet()) {
+			File file = new File(System.getProperty("user.dir"), SHARDS_DIRECTORY + entry.getValue().getAsString());
+			try (InputStream in = new GZIPInputStream(new FileInputStream(file.getPath() + ".gz"))) {
+				ByteArrayOutputStream unzipped = new ByteArrayOutputStream();
+				byte[] buffer = new byte[1024];
+				for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+					unzipped.write(buffer, 0, read);
+				}
+				assertArrayEquals(Files.readAllBytes(file.toPath()), unzipped.toByteArray());
+			}
+		}
+	}
+
+	private JsonObject readManifest() throws IOException {
+		return read(SHARDS_DIRECTORY + read(INDEX_FILENAME).get("constraints-manifest.json").getAsString());
+	}
+
+	private JsonObject read(String filename) throws IOException {
+		byte[] json = Files.readAllBytes(new File(System.getProperty("user.dir"), filename).toPath());
+		return new Gson().fromJson(new String(json, Charset.forName("UTF-8")), JsonObject.class);
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.google.gson.JsonObject;
+
+/**
+ * Checks the counters written with stats=true
+ * @author Florian Hirsch
+ */
+public class StatsTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testStats() throws IOException {
+		File ignoreFile = folder.newFile("ignore.txt");
+		Files.write(ignoreFile.toPath(), Collections.singletonList("model.Form.internal"), Charset.forName("UTF-8"));
+		TestCompilation compilation = new TestCompilation(folder.newFolder("compilation"));
+		compilation.writeSource("Form", "@NotNull @Size(max = 10) private String name; @NotNull private String street; "
+				+ "@Min(1) private int internal;");
+		assertTrue(compilation.compile(Collections.singletonList("Form"), 
+				Arrays.asList("stats=true", "compress=gzip", "ignoreFile=" + ignoreFile.getPath())));
+
+		JsonObject stats = compilation.readJson("beanval2json-stats.json");
+		JsonObject annotations = stats.getAsJsonObject("annotations");
+		assertEquals(2, annotations.get("javax.validation.constraints.NotNull").getAsInt());
+		assertEquals(1, annotations.get("javax.validation.constraints.Size").getAsInt());
+		assertEquals(2, stats.get("properties").getAsInt());
+		assertEquals(1, stats.getAsJsonObject("ignore").get("hits").getAsInt());
+		assertEquals(2, stats.getAsJsonObject("ignore").get("misses").getAsInt());
+		for (String phase : Arrays.asList("load", "collect", "ignore", "convert", "mapping", "write")) {
+			assertTrue(phase, stats.getAsJsonObject("phases").has(phase));
+		}
+		JsonObject output = stats.getAsJsonObject("output");
+		long modelBytes = output.get("constraints.json").getAsLong();
+		long gzipBytes = output.get("constraints.json.gz").getAsLong();
+		assertEquals(new File(folder.getRoot(), "compilation/output/constraints.json").length(), modelBytes);
+		assertEquals(modelBytes + gzipBytes, stats.get("outputBytes").getAsLong());
+	}
+
+	@Test
+	public void testStatsWithCache() throws IOException {
+		File ignoreFile = folder.newFile("ignore.txt");
+		Files.write(ignoreFile.toPath(), Collections.singletonList("model.Form.internal"), Charset.forName("UTF-8"));
+		TestCompilation compilation = new TestCompilation(folder.newFolder("compilation"));
+		compilation.writeSource("Form", "@NotNull @Size(max = 10) private String name; @Min(1) private int internal;");
+		List<String> options = Arrays.asList("stats=true", "ignoreFile=" + ignoreFile.getPath(), 
+				"cacheDir=" + folder.newFolder("cache").getPath());
+		assertTrue(compilation.compile(Collections.singletonList("Form"), options));
+		JsonObject cold = compilation.readJson("beanval2json-stats.json");
+		assertEquals(1, cold.getAsJsonObject("cache").get("misses").getAsInt());
+
+		assertTrue(compilation.compile(Collections.singletonList("Form"), options));
+		JsonObject warm = compilation.readJson("beanval2json-stats.json");
+		assertEquals(1, warm.getAsJsonObject("cache").get("hits").getAsInt());
+		// the counters don't depend on the cache
+		assertEquals(cold.get("annotations"), warm.get("annotations"));
+		assertEquals(1, warm.get("properties").getAsInt());
+		assertEquals(cold.get("ignore"), warm.get("ignore"));
+	}
+
+}
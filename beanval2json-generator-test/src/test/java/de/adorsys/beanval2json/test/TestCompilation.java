@@ -0,0 +1,139 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+
+/**
+ * Runs the BeanvalAnnotationProcessor with the in-process JavaCompiler
+ * on sources of the package 'model' written to a temporary directory.
+ * @author Florian Hirsch
+ */
+class TestCompilation {
+
+	static final String PACKAGE = "model";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final File sources;
+
+	private final File classes;
+
+	private final File output;
+
+	/** the warnings of the last compilation */
+	private final List<String> warnings = new ArrayList<>();
+
+	TestCompilation(File directory) {
+		this.sources = new File(directory, "src");
+		this.classes = new File(directory, "classes");
+		this.output = new File(directory, "output");
+		sources.mkdirs();
+		classes.mkdirs();
+		output.mkdirs();
+	}
+
+	void writeSource(String type, String body) throws IOException {
+		Files.write(new File(sources, type + ".java").toPath(), source(type, body).getBytes(UTF_8));
+	}
+
+	void deleteType(String type) throws IOException {
+		Files.delete(new File(sources, type + ".java").toPath());
+		Files.delete(new File(classes, PACKAGE + "/" + type + ".class").toPath());
+	}
+
+	/**
+	 * compiles the sources of given types with the classes of previous compilations on the classpath
+	 * @param options the options of the BeanvalAnnotationProcessor like 'incremental=true'
+	 * @param processors additional processors to run
+	 */
+	boolean compile(List<String> types, List<String> options, Processor... processors) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, UTF_8)) {
+			List<File> files = new ArrayList<>();
+			for (String type : types) {
+				files.add(new File(sources, type + ".java"));
+			}
+			List<String> compilerOptions = new ArrayList<>(Arrays.asList("-d", classes.getPath(), "-s", output.getPath(),
+					"-classpath", System.getProperty("java.class.path") + File.pathSeparator + classes.getPath()));
+			for (String option : options) {
+				compilerOptions.add("-A" + option);
+			}
+			List<Processor> allProcessors = new ArrayList<>(Arrays.asList(processors));
+			allProcessors.add(new BeanvalAnnotationProcessor());
+			DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, compilerOptions, null, 
+					fileManager.getJavaFileObjectsFromFiles(files));
+			task.setProcessors(allProcessors);
+			boolean result = task.call();
+			warnings.clear();
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.WARNING || diagnostic.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+					warnings.add(diagnostic.getMessage(null));
+				}
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					System.err.println(diagnostic);
+				}
+			}
+			return result;
+		}
+	}
+
+	List<String> getWarnings() {
+		return warnings;
+	}
+
+	File getClasses() {
+		return classes;
+	}
+
+	File getOutput() {
+		return output;
+	}
+
+	JsonObject readConstraints() throws IOException {
+		return readJson("constraints.json");
+	}
+
+	JsonObject readJson(String filename) throws IOException {
+		byte[] json = Files.readAllBytes(new File(output, filename).toPath());
+		return new Gson().fromJson(new String(json, UTF_8), JsonObject.class);
+	}
+
+	static String source(String type, String body) {
+		return String.format("package %s; import javax.validation.constraints.*; public class %s { %s }", PACKAGE, type, body);
+	}
+
+}
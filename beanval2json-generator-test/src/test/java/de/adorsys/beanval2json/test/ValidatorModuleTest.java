@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Checks the JavaScript-module written with validators=true
+ * @author Florian Hirsch
+ */
+public class ValidatorModuleTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testOneFunctionPerPropertyWithSharedConstants() throws IOException {
+		TestCompilation compilation = new TestCompilation(folder.getRoot());
+		compilation.writeSource("Form", "@Pattern(regexp = \"[a-z]+\", message = \"letters only\") private String first; "
+				+ "@Pattern(regexp = \"[a-z]+\", message = \"letters only\") private String second; "
+				+ "@NotNull @Min(5) @DecimalMax(value = \"10.5\", inclusive = false) private Integer amount;");
+		assertTrue(compilation.compile(Collections.singletonList("Form"), Arrays.asList("validators=true")));
+
+		String module = new String(Files.readAllBytes(new File(compilation.getOutput(), "constraints.js").toPath()), Charset.forName("UTF-8"));
+		assertEquals(3, count(module, "] = function(value)"));
+		assertTrue(module.contains("validators[\"model.Form.first\"]"));
+		// the regular expression and the message are declared once for both properties
+		assertEquals(1, count(module, "new RegExp(\"^(?:[a-z]+)$\")"));
+		assertEquals(1, count(module, "\"letters only\";"));
+		assertTrue(module.contains("check(result, \"min\", empty || number >= NUMBER_"));
+		assertTrue(module.contains("check(result, \"decimalMax\", empty || number < NUMBER_"));
+		assertTrue(module.contains(" = 10.5;"));
+	}
+
+	@Test
+	public void testUntranslatableRegexpsAreSkipped() throws IOException {
+		TestCompilation compilation = new TestCompilation(folder.getRoot());
+		compilation.writeSource("Form", "@Pattern(regexp = \"a++\") private String possessive; "
+				+ "@Pattern(regexp = \"(?>a)b\") private String atomic; "
+				+ "@Pattern(regexp = \"[a-z&&[^x]]\") private String intersection; "
+				+ "@Pattern(regexp = \"[a-z]+\") private String letters;");
+		assertTrue(compilation.compile(Collections.singletonList("Form"), Arrays.asList("validators=true")));
+
+		String module = new String(Files.readAllBytes(new File(compilation.getOutput(), "constraints.js").toPath()), Charset.forName("UTF-8"));
+		// a RegExp of them would throw a SyntaxError when the module is loaded
+		assertEquals(1, count(module, "new RegExp("));
+		assertEquals(3, count(module, "check(result, \"pattern\", true /* untranslatable regexp: "));
+		assertTrue(module.contains("new RegExp(\"^(?:[a-z]+)$\")"));
+	}
+
+	private int count(String text, String part) {
+		int result = 0;
+		for (int index = text.indexOf(part); index >= 0; index = text.indexOf(part, index + 1)) {
+			result++;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,91 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Map.Entry;
+
+import org.junit.Test;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import de.adorsys.beanval2json.test.model.Groups;
+import de.adorsys.beanval2json.test.model.Person;
+
+/**
+ * Checks the variants written with variantGroups=Default,...Groups.User and variantLocales=de
+ * @author Florian Hirsch
+ */
+public class VariantTest {
+
+	private static final String CONSTRAINTS_FILENAME = "target/beanval2json/js/constraints.json";
+
+	private static final String VARIANTS_DIRECTORY = "target/beanval2json-variants/variants/";
+
+	@Test
+	public void testDefaultGroup() throws IOException {
+		JsonObject variant = read(VARIANTS_DIRECTORY + "Default_de.json");
+		assertTrue(variant.has(Person.class.getName() + ".firstname"));
+		assertTrue(variant.has("eMail"));
+		assertFalse(variant.has(Person.class.getName() + ".id"));
+		assertNoGroups(variant);
+	}
+
+	@Test
+	public void testUserGroup() throws IOException {
+		JsonObject variant = read(VARIANTS_DIRECTORY + Groups.User.class.getCanonicalName() + "_de.json");
+		assertEquals(1, variant.entrySet().size());
+		assertTrue(variant.getAsJsonObject(Person.class.getName() + ".id").has("notNull"));
+		assertNoGroups(variant);
+	}
+
+	@Test
+	public void testLocalizedMessages() throws IOException {
+		String birthdate = Person.class.getName() + ".birthdate";
+		JsonObject variant = read(VARIANTS_DIRECTORY + "Default_de.json");
+		assertEquals("Das Datum muss in der Vergangenheit liegen", message(variant, birthdate, "past"));
+		assertEquals("The date should be in the past", message(read(CONSTRAINTS_FILENAME), birthdate, "past"));
+		// messages without key are kept
+		assertEquals("Letters only", message(variant, Person.class.getName() + ".lastname", "pattern"));
+	}
+
+	private void assertNoGroups(JsonObject variant) {
+		for (Entry<String, JsonElement> property : variant.entrySet()) {
+			for (Entry<String, JsonElement> constraint : property.getValue().getAsJsonObject().entrySet()) {
+				assertFalse(constraint.getValue().getAsJsonObject().has("groups"));
+			}
+		}
+	}
+
+	private String message(JsonObject constraints, String property, String constraint) {
+		return constraints.getAsJsonObject(property).getAsJsonObject(constraint).get("message").getAsString();
+	}
+
+	private JsonObject read(String filename) throws IOException {
+		byte[] json = Files.readAllBytes(new File(System.getProperty("user.dir"), filename).toPath());
+		return new Gson().fromJson(new String(json, Charset.forName("UTF-8")), JsonObject.class);
+	}
+
+}
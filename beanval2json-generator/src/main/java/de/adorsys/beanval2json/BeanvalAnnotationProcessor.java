@@ -15,11 +15,16 @@
  */
 package de.adorsys.beanval2json;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Paths;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 
 import javax.annotation.processing.AbstractProcessor;
 import javax.annotation.processing.ProcessingEnvironment;
@@ -29,16 +34,12 @@ import javax.annotation.processing.SupportedOptions;
 import javax.annotation.processing.SupportedSourceVersion;
 import javax.lang.model.SourceVersion;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
 import javax.tools.Diagnostic.Kind;
 
-import com.google.gson.GsonBuilder;
-
 import de.adorsys.beanval2json.constraint.Constraints;
-import de.adorsys.beanval2json.converter.BeanvalConverter;
-import de.adorsys.beanval2json.converter.DigitsConverter;
-import de.adorsys.beanval2json.converter.NumericConverter;
-import de.adorsys.beanval2json.converter.PatternConverter;
-import de.adorsys.beanval2json.converter.SizeConverter;
+import de.adorsys.beanval2json.constraint.PatternConstraint;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
 
 /**
  * AnnotationProcessor to convert Beanvalidation-Annotations to JSON
@@ -46,93 +47,344 @@ import de.adorsys.beanval2json.converter.SizeConverter;
  */
 @SupportedAnnotationTypes({ "javax.validation.constraints.*" })
 @SupportedSourceVersion(SourceVersion.RELEASE_7)
-@SupportedOptions({ "mappingFile", "messagesFile", "ignoreFile" })
+@SupportedOptions({ "mappingFile", "messagesFile", "ignoreFile", "format", "encoding", "shards", "hashFilenames", "compress", "incremental", "parallel", "cacheDir", 
+	"variantGroups", "variantLocales", "stats", "validators" })
 public class BeanvalAnnotationProcessor extends AbstractProcessor {
 
 	public static final String OPTION_MAPPING_FILE = "mappingFile";
 	public static final String OPTION_MESSAGES_FILE = "messagesFile";
 	public static final String OPTION_IGNORE_FILE = "ignoreFile";
+	public static final String OPTION_FORMAT = "format";
+	public static final String OPTION_ENCODING = "encoding";
+	public static final String OPTION_SHARDS = "shards";
+	public static final String OPTION_HASH_FILENAMES = "hashFilenames";
+	public static final String OPTION_COMPRESS = "compress";
+	public static final String OPTION_INCREMENTAL = "incremental";
+	public static final String OPTION_PARALLEL = "parallel";
+	public static final String OPTION_CACHE_DIR = "cacheDir";
+	public static final String OPTION_VARIANT_GROUPS = "variantGroups";
+	public static final String OPTION_VARIANT_LOCALES = "variantLocales";
+	public static final String OPTION_STATS = "stats";
+	public static final String OPTION_VALIDATORS = "validators";
+	
+	private static final String VALIDATORS_FILE = "constraints.js";
+	
+	private static final String COMPRESSION_GZIP = "gzip";
+	private static final String COMPRESSION_BROTLI = "br";
 	
-	private Set<BeanvalConverter> converters;
+	private ConverterContext ctx;
+	
+	private ConstraintCollector collector;
 	
 	private ResourceHandler resourceHandler;
 	
+	private ConstraintsWriter constraintsWriter;
+	
+	/** null if the stats-option is not set */
+	private ProcessingStats stats;
+	
+	/** null if no variants are configured */
+	private ConstraintVariants variants;
+	
+	/** identifies the messages and ignore-rules the constraints are created with */
+	private String settings;
+	
+	private boolean incremental;
+	
+	/** the constraints collected in all rounds */
+	private ConstraintIndex constraintIndex = new ConstraintIndex();
+	
+	/** the qualified names of all types compiled in all rounds */
+	private Set<String> compiledTypes = new HashSet<>();
+	
+	private boolean errorRaised;
+	
 	@Override
 	public synchronized void init(ProcessingEnvironment processingEnv) {
 		super.init(processingEnv);
-		resourceHandler = new ResourceHandler(processingEnv.getFiler());
+		long start = System.nanoTime();
+		stats = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_STATS)) ? new ProcessingStats() : null;
+		resourceHandler = new ResourceHandler(processingEnv.getFiler(), 
+				Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_HASH_FILENAMES)),
+				isGzipEnabled(), stats);
 		Properties messages = null;
-		Set<String> ignoredProperties = null;
+		IgnoreRules ignoreRules = null;
 		try {
 			messages = resourceHandler.loadProperties(processingEnv.getOptions().get(OPTION_MESSAGES_FILE));
-			ignoredProperties = resourceHandler.loadIgnoreFile(processingEnv.getOptions().get(OPTION_IGNORE_FILE));
+			Set<String> ignoredProperties = resourceHandler.loadIgnoreFile(processingEnv.getOptions().get(OPTION_IGNORE_FILE));
+			ignoreRules = ignoredProperties == null ? null : IgnoreRules.compile(ignoredProperties);
+			settings = ConstraintCache.settings(messages, ignoredProperties);
 		} catch (ProcessingException ex) {
 			processingEnv.getMessager().printMessage(Kind.WARNING, ex.getMessage());
 		}
-		ConverterContext ctx = new ConverterContext(processingEnv.getTypeUtils(), processingEnv.getElementUtils(), messages, ignoredProperties);
-		converters = new HashSet<>();
-		converters.add(new BeanvalConverter(ctx));
-		converters.add(new NumericConverter(ctx));
-		converters.add(new DigitsConverter(ctx));
-		converters.add(new PatternConverter(ctx));
-		converters.add(new SizeConverter(ctx));		
+		incremental = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_INCREMENTAL));
+		variants = ConstraintVariants.forOptions(processingEnv.getOptions().get(OPTION_VARIANT_GROUPS), 
+				processingEnv.getOptions().get(OPTION_VARIANT_LOCALES));
+		ctx = new ConverterContext(processingEnv.getTypeUtils(), processingEnv.getElementUtils(), messages, ignoreRules);
+		try {
+			ConverterRegistry converters = ConverterRegistry.withDefaultConverters(ctx);
+			String cacheDir = processingEnv.getOptions().get(OPTION_CACHE_DIR);
+			collector = new ConstraintCollector(ctx, converters, processingEnv.getMessager(),
+					Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_PARALLEL)),
+					cacheDir == null || settings == null ? null : new ConstraintCache(Paths.get(cacheDir), settings), stats);
+			constraintsWriter = ConstraintsWriter.forOptions(processingEnv.getOptions().get(OPTION_FORMAT), 
+					processingEnv.getOptions().get(OPTION_ENCODING));
+		} catch (ProcessingException ex) {
+			processingEnv.getMessager().printMessage(Kind.ERROR, ex.getMessage());
+		}
+		addTime(ProcessingStats.PHASE_LOAD, start);
  	}
 
+	/**
+	 * @return true if the compress-option contains gzip
+	 */
+	private boolean isGzipEnabled() {
+		String option = processingEnv.getOptions().get(OPTION_COMPRESS);
+		if (option == null) {
+			return false;
+		}
+		boolean result = false;
+		for (String value : option.split(",")) {
+			if (COMPRESSION_GZIP.equals(value.trim())) {
+				result = true;
+			} else if (COMPRESSION_BROTLI.equals(value.trim())) {
+				// there is no Brotli-Encoder available in plain Java
+				processingEnv.getMessager().printMessage(Kind.WARNING, "Brotli-compression is not supported, no .br-files will be written");
+			} else {
+				processingEnv.getMessager().printMessage(Kind.WARNING, String.format("Unknown compression '%s'", value));
+			}
+		}
+		return result;
+	}
+
 	@Override
 	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
-		if (!roundEnv.errorRaised() && !roundEnv.processingOver()) {
-			try {
-				processRound(annotations, roundEnv);
-			} catch (ProcessingException ex) {
-				processingEnv.getMessager().printMessage(Kind.WARNING, ex.getMessage());
+		if (collector == null || constraintsWriter == null) {
+			return false;
+		}
+		if (roundEnv.processingOver()) {
+			// also after errors, the threads would outlive the build in a compiler-daemon otherwise
+			collector.shutdown();
+		}
+		errorRaised |= roundEnv.errorRaised();
+		if (errorRaised) {
+			return false;
+		}
+		try {
+			if (roundEnv.processingOver()) {
+				writeConstraints();
+			} else {
+				long start = System.nanoTime();
+				constraintIndex.putAll(collector.collect(annotations, roundEnv));
+				addTypeNames(ElementFilter.typesIn(roundEnv.getRootElements()), compiledTypes);
+				addTime(ProcessingStats.PHASE_COLLECT, start);
 			}
+		} catch (ProcessingException ex) {
+			processingEnv.getMessager().printMessage(Kind.WARNING, ex.getMessage());
 		}
 		return false;
 	}
 
-	private void processRound(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) throws ProcessingException {
-		Map<String, Constraints> constraints = new HashMap<>();
-		for (TypeElement typeElement : annotations) {		
-			BeanvalConverter converter = converterFor(typeElement);
-			if (converter != null) {
-				converter.addConstraints(typeElement, roundEnv, constraints);
-			}
+	/**
+	 * writes the constraints collected in all rounds
+	 */
+	private void writeConstraints() throws ProcessingException {
+		long start = System.nanoTime();
+		if (incremental && settings != null) {
+			updateConstraintIndex();
+			addTime(ProcessingStats.PHASE_INCREMENTAL, start);
 		}
-		Map<String, Constraints> mappedConstraints = mapConstraints(constraints);
-		resourceHandler.writeModel(toJson(mappedConstraints));
+		Map<String, Constraints> constraints = constraintIndex.getConstraints();
+		warnUntranslatableRegexps(constraints);
+		String shards = processingEnv.getOptions().get(OPTION_SHARDS);
+		Map<String, Constraints> mappedConstraints = null;
+		boolean validators = Boolean.parseBoolean(processingEnv.getOptions().get(OPTION_VALIDATORS));
+		if (shards == null || variants != null || validators) {
+			start = System.nanoTime();
+			mappedConstraints = mapConstraints(constraints);
+			addTime(ProcessingStats.PHASE_MAPPING, start);
+		}
+		start = System.nanoTime();
+		if (shards == null) {
+			writeModel(mappedConstraints);
+		} else {
+			writeShards(constraints, ShardedConstraints.forMode(shards));
+		}
+		if (variants != null) {
+			writeVariants(mappedConstraints);
+		}
+		if (validators) {
+			writeValidators(mappedConstraints);
+		}
+		resourceHandler.writeIndex();
+		addTime(ProcessingStats.PHASE_WRITE, start);
 		processingEnv.getMessager().printMessage(Kind.NOTE, "Successfully converted Beanvalidation-Annotations to JSON");
+		if (stats != null) {
+			writeStats();
+		}
 	}
 	
-	private BeanvalConverter converterFor(TypeElement typeElement) {
-		for (BeanvalConverter converter : converters) {
-			if (converter.accepts(typeElement)) {
-				return converter;
+	private void addTime(String phase, long start) {
+		if (stats != null) {
+			stats.addTime(phase, start);
+		}
+	}
+	
+	/**
+	 * prints the summary of the stats and writes them next to the output
+	 */
+	private void writeStats() throws ProcessingException {
+		processingEnv.getMessager().printMessage(Kind.NOTE, stats.getSummary());
+		resourceHandler.writeStats(new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				stats.write(writer);
+			}
+		});
+	}
+	
+	/**
+	 * Warns once per regexp which can't be translated to ECMAScript, the client uses the regexp unchanged then.
+	 * The problem is kept by the converter and persisted with the incremental index and the cache.
+	 */
+	private void warnUntranslatableRegexps(Map<String, Constraints> constraints) {
+		Set<String> warned = new HashSet<>();
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			PatternConstraint pattern = entry.getValue().getPattern();
+			if (pattern == null) {
+				continue;
+			}
+			if (pattern.getJsProblem() != null && warned.add(pattern.getRegexp() + '\n' + pattern.getFlags())) {
+				processingEnv.getMessager().printMessage(Kind.WARNING, String.format("The regexp '%s' of %s can't be translated to JavaScript (%s), "
+						+ "it is used unchanged by the client and not checked by the validator module", pattern.getRegexp(), entry.getKey(), pattern.getJsProblem()));
 			}
 		}
-		String message = String.format("No Converter registered for typeElement '%s'", typeElement);
-		processingEnv.getMessager().printMessage(Kind.WARNING, message);
-		return null;
 	}
 	
-	private Map<String, Constraints> mapConstraints(Map<String, Constraints> constraints) throws ProcessingException {
-		Properties mapping = resourceHandler.loadProperties(processingEnv.getOptions().get(OPTION_MAPPING_FILE));
-		if (mapping == null) {
-			return constraints;
+	/**
+	 * Merges the constraints of the types compiled in this run into the index of the previous run
+	 * and writes the result for the next run.
+	 * The constraints of compiled types are replaced, the ones of types which don't exist anymore are dropped.
+	 */
+	private void updateConstraintIndex() throws ProcessingException {
+		ConstraintIndex index = new ConstraintIndex();
+		try (Reader reader = resourceHandler.openConstraintIndex()) {
+			if (reader != null && !index.read(settings, reader)) {
+				warnMissingTypes(index.getStaleTypes());
+			}
+		} catch (IOException ex) {
+			processingEnv.getMessager().printMessage(Kind.WARNING, String.format("Constraint index is rebuilt: %s", ex.getMessage()));
+		}
+		Set<String> obsoleteTypes = new HashSet<>(compiledTypes);
+		for (String type : index.getTypes()) {
+			if (processingEnv.getElementUtils().getTypeElement(type) == null) {
+				obsoleteTypes.add(type);
+			}
+		}
+		index.removeTypes(obsoleteTypes);
+		index.putAll(constraintIndex);
+		constraintIndex = index;
+		resourceHandler.writeConstraintIndex(new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				constraintIndex.write(settings, writer);
+			}
+		});
+	}
+	
+	/**
+	 * The constraints of an index created with other settings can't be used,
+	 * so the ones of the types which are not compiled again are missing until a full rebuild.
+	 */
+	private void warnMissingTypes(Set<String> staleTypes) {
+		Set<String> missingTypes = new TreeSet<>();
+		for (String type : staleTypes) {
+			if (!compiledTypes.contains(type) && processingEnv.getElementUtils().getTypeElement(type) != null) {
+				missingTypes.add(type);
+			}
+		}
+		if (!missingTypes.isEmpty()) {
+			processingEnv.getMessager().printMessage(Kind.WARNING, String.format("The messages or ignore-rules changed since the last build, "
+					+ "the constraints of %d types which were not compiled again like %s are missing, a full rebuild is required", 
+					missingTypes.size(), missingTypes.iterator().next()));
+		}
+	}
+	
+	/**
+	 * adds the qualified names of given types and all their nested types
+	 */
+	private void addTypeNames(Iterable<TypeElement> types, Set<String> typeNames) {
+		for (TypeElement type : types) {
+			typeNames.add(type.getQualifiedName().toString());
+			addTypeNames(ElementFilter.typesIn(type.getEnclosedElements()), typeNames);
 		}
-		Map<String, Constraints> result = new HashMap<>();
+	}
+	
+	private void writeModel(final Map<String, Constraints> constraints) throws ProcessingException {
+		resourceHandler.writeModel(new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				constraintsWriter.write(constraints, writer);
+			}
+		});
+	}
+	
+	private void writeShards(Map<String, Constraints> constraints, final ShardedConstraints shardedConstraints) throws ProcessingException {
+		Properties mapping = resourceHandler.loadProperties(processingEnv.getOptions().get(OPTION_MAPPING_FILE));
 		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
-			String key = mapping.containsKey(entry.getKey()) 
-							? mapping.getProperty(entry.getKey()) 
-							: entry.getKey();
-			result.put(key, entry.getValue());
+			shardedConstraints.add(entry.getKey(), ConstraintMapping.keyOf(mapping, entry.getKey()), entry.getValue());
 		}
-		return result;
+		final Map<String, String> shardFiles = new TreeMap<>();
+		for (final Map.Entry<String, Map<String, Constraints>> shard : shardedConstraints.getShards().entrySet()) {
+			String filename = resourceHandler.writeResource(shardedConstraints.getFilename(shard.getKey()), new ResourceContent() {
+				@Override
+				public void writeTo(Writer writer) throws IOException {
+					constraintsWriter.write(shard.getValue(), writer);
+				}
+			});
+			shardFiles.put(shard.getKey(), filename);
+		}
+		resourceHandler.writeManifest(new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				constraintsWriter.writeManifest(shardFiles, shardedConstraints, writer);
+			}
+		});
 	}
 	
-	private String toJson(Map<String, Constraints> constraints) {
-		GsonBuilder gsonBuilder = new GsonBuilder();
-		gsonBuilder.setPrettyPrinting();
-		return gsonBuilder.create().toJson(constraints);
+	/**
+	 * writes one file per configured group and locale
+	 */
+	private void writeVariants(Map<String, Constraints> constraints) throws ProcessingException {
+		for (String locale : variants.getLocales()) {
+			Properties messages = resourceHandler.loadLocalizedProperties(processingEnv.getOptions().get(OPTION_MESSAGES_FILE), locale);
+			for (String group : variants.getGroups()) {
+				final Map<String, Constraints> variant = variants.filter(constraints, group, messages);
+				resourceHandler.writeResource(variants.getFilename(group, locale), new ResourceContent() {
+					@Override
+					public void writeTo(Writer writer) throws IOException {
+						constraintsWriter.write(variant, writer);
+					}
+				});
+			}
+		}
+	}
+	
+	/**
+	 * writes the JavaScript-module with one validation-function per property
+	 */
+	private void writeValidators(final Map<String, Constraints> constraints) throws ProcessingException {
+		resourceHandler.writeResource(VALIDATORS_FILE, new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				new ValidatorModuleWriter().write(constraints, writer);
+			}
+		});
+	}
+	
+	private Map<String, Constraints> mapConstraints(Map<String, Constraints> constraints) throws ProcessingException {
+		Properties mapping = resourceHandler.loadProperties(processingEnv.getOptions().get(OPTION_MAPPING_FILE));
+		return ConstraintMapping.apply(mapping, constraints);
 	}
 		
 }
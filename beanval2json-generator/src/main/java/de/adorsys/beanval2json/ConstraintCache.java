@@ -0,0 +1,160 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Content-addressed cache of the converted constraints of one type.
+ * The key is a digest of the constraint-relevant signature of the type
+ * and the settings, the value is the JSON of the constraints of the type.
+ * Entries are written to a temporary file which is then moved atomically,
+ * so the directory can be shared by builds running in parallel.
+ * @author Florian Hirsch
+ */
+public class ConstraintCache {
+
+	/** to be increased if the format of the entries or the conversion changes */
+	private static final String VERSION = "5";
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	private static final String EXTENSION = ".json";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final Type ENTRY_TYPE = new TypeToken<TreeMap<String, Constraints>>() {}.getType();
+
+	private final Gson gson = ConstraintIndex.createGson();
+
+	private final Path directory;
+
+	private final String settings;
+
+	/**
+	 * @param settings identifies the messages and ignore-rules the constraints are created with
+	 */
+	public ConstraintCache(Path directory, String settings) throws ProcessingException {
+		this.directory = directory;
+		this.settings = settings;
+		try {
+			Files.createDirectories(directory);
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("Could not create cacheDir '%s': %s", directory, ex.getMessage()));
+		}
+	}
+
+	/**
+	 * @param messages the messages or null
+	 * @param ignoredProperties the ignore-rules or null
+	 * @return a digest identifying the given settings and the version of the conversion,
+	 * independent of the order of the messages and rules
+	 */
+	public static String settings(Properties messages, Collection<String> ignoredProperties) {
+		StringBuilder content = new StringBuilder(VERSION).append('\n');
+		if (messages != null) {
+			for (String name : new TreeSet<>(messages.stringPropertyNames())) {
+				content.append(name.length()).append(':').append(name).append('=');
+				content.append(messages.getProperty(name).length()).append(':').append(messages.getProperty(name)).append('\n');
+			}
+		}
+		content.append('\n');
+		if (ignoredProperties != null) {
+			for (String rule : new TreeSet<>(ignoredProperties)) {
+				content.append(rule).append('\n');
+			}
+		}
+		return digest(content);
+	}
+
+	/**
+	 * @param signature everything the constraints of a type are created from
+	 * @return the key of the entry for the given signature
+	 */
+	public String key(CharSequence signature) {
+		return digest(VERSION + '\n' + settings + '\n' + signature);
+	}
+
+	private static String digest(CharSequence content) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			digest.update(content.toString().getBytes(UTF_8));
+			StringBuilder result = new StringBuilder();
+			for (byte b : digest.digest()) {
+				result.append(String.format("%02x", b));
+			}
+			return result.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * @return the constraints keyed by property-name or null if there is no entry for the key
+	 */
+	public Map<String, Constraints> read(String key) throws IOException {
+		try (Reader reader = Files.newBufferedReader(directory.resolve(key + EXTENSION), UTF_8)) {
+			return gson.fromJson(reader, ENTRY_TYPE);
+		} catch (NoSuchFileException ex) {
+			return null;
+		} catch (JsonParseException ex) {
+			throw new IOException(String.format("Invalid cache-entry %s: %s", key, ex.getMessage()));
+		}
+	}
+
+	public void write(String key, Map<String, Constraints> constraints) throws IOException {
+		Path target = directory.resolve(key + EXTENSION);
+		Path temp = Files.createTempFile(directory, key, ".tmp");
+		try {
+			try (Writer writer = Files.newBufferedWriter(temp, UTF_8)) {
+				gson.toJson(constraints, ENTRY_TYPE, writer);
+			}
+			try {
+				Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+			} catch (AtomicMoveNotSupportedException ex) {
+				Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+			} catch (FileAlreadyExistsException ex) {
+				// written by another build in the meantime, the content is the same
+			}
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+}
@@ -0,0 +1,336 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic.Kind;
+
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.converter.ConstraintDescriptor;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
+
+/**
+ * Collects the constraints of all annotated elements of a round.
+ * Each element is visited only once, its AnnotationMirrors are dispatched
+ * to the according converter by the qualified name of the annotation.
+ * @author Florian Hirsch
+ */
+public class ConstraintCollector {
+
+	private ConverterContext ctx;
+
+	private ConverterRegistry converters;
+
+	private Messager messager;
+
+	private boolean parallel;
+
+	private ConstraintCache cache;
+
+	private ProcessingStats stats;
+
+	/** the pool of the parallel conversion shared by all rounds, created on first use */
+	private ForkJoinPool pool;
+
+	public ConstraintCollector(ConverterContext ctx, ConverterRegistry converters, Messager messager) {
+		this(ctx, converters, messager, false, null, null);
+	}
+
+	/**
+	 * @param parallel true to convert the AnnotationMirrors on a ForkJoinPool. 
+	 * Their values are read on the calling thread, as the compiler is not thread-safe.
+	 * @param cache the cache for the constraints of each type, may be null
+	 * @param stats records the time of ignoring and converting and the counters, may be null
+	 */
+	public ConstraintCollector(ConverterContext ctx, ConverterRegistry converters, Messager messager, boolean parallel, 
+			ConstraintCache cache, ProcessingStats stats) {
+		this.ctx = ctx;
+		this.converters = converters;
+		this.messager = messager;
+		this.parallel = parallel;
+		this.cache = cache;
+		this.stats = stats;
+	}
+
+	/**
+	 * @return the constraints of all elements annotated with the given annotations
+	 * grouped by the type they are declared in
+	 */
+	public ConstraintIndex collect(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Set<Element> elements = new LinkedHashSet<>();
+		for (TypeElement annotation : annotations) {
+			if (converters.slotFor(annotation) == null) {
+				String message = String.format("No Converter registered for typeElement '%s'", annotation);
+				messager.printMessage(Kind.WARNING, message);
+				continue;
+			}
+			elements.addAll(roundEnv.getElementsAnnotatedWith(annotation));
+		}
+		Map<String, List<Element>> elementsByType = new LinkedHashMap<>();
+		for (Element element : elements) {
+			String type = getTypeName(element);
+			List<Element> typeElements = elementsByType.get(type);
+			if (typeElements == null) {
+				typeElements = new ArrayList<>();
+				elementsByType.put(type, typeElements);
+			}
+			typeElements.add(element);
+		}
+		ConstraintIndex index = new ConstraintIndex();
+		List<ConstraintDescriptor> descriptors = new ArrayList<>();
+		List<Constraints> targets = new ArrayList<>();
+		Map<String, String> cacheMisses = new LinkedHashMap<>();
+		for (Map.Entry<String, List<Element>> type : elementsByType.entrySet()) {
+			if (cache != null) {
+				String key = cache.key(getSignature(type.getValue()));
+				Map<String, Constraints> cached = readCache(key);
+				if (stats != null) {
+					stats.countCache(cached != null);
+				}
+				if (cached != null) {
+					if (stats != null) {
+						countCachedType(type.getValue());
+					}
+					for (Constraints constraints : cached.values()) {
+						ctx.getInterner().intern(constraints);
+					}
+					if (!cached.isEmpty()) {
+						index.putTypeConstraints(type.getKey(), cached);
+					}
+					continue;
+				}
+				cacheMisses.put(type.getKey(), key);
+			}
+			for (Element element : type.getValue()) {
+				String enclosingName = getEnclosingName(element);
+				String name = String.format("%s.%s", enclosingName, element.getSimpleName());
+				if (ignoreProperty(enclosingName, name)) {
+					continue;
+				}
+				Constraints constraints = null;
+				for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+					ConstraintSlot slot = converters.slotFor(annotationMirror);
+					if (slot == null) {
+						continue;
+					}
+					if (constraints == null) {
+						constraints = index.getConstraints(type.getKey(), name);
+						if (stats != null) {
+							stats.countProperty();
+						}
+					}
+					long start = System.nanoTime();
+					if (parallel) {
+						descriptors.add(converters.converterFor(slot).describe(slot, annotationMirror));
+						targets.add(constraints);
+					} else {
+						converters.converterFor(slot).addConstraint(slot, annotationMirror, constraints);
+					}
+					if (stats != null) {
+						stats.addTime(ProcessingStats.PHASE_CONVERT, start);
+						stats.countAnnotation(slot.getAnnotationType().getName());
+					}
+				}
+			}
+		}
+		if (!descriptors.isEmpty()) {
+			long start = System.nanoTime();
+			Constraint[] results = convert(descriptors);
+			for (int i = 0; i < results.length; i++) {
+				descriptors.get(i).getSlot().set(targets.get(i), results[i]);
+			}
+			if (stats != null) {
+				stats.addTime(ProcessingStats.PHASE_CONVERT, start);
+			}
+		}
+		for (Map.Entry<String, String> cacheMiss : cacheMisses.entrySet()) {
+			Map<String, Constraints> typeConstraints = index.getTypeConstraints(cacheMiss.getKey());
+			writeCache(cacheMiss.getValue(), typeConstraints == null ? Collections.<String, Constraints> emptyMap() : typeConstraints);
+		}
+		return index;
+	}
+
+	/**
+	 * counts the properties, annotations and ignored properties of a type taken from the cache
+	 * like the ones of a converted type, so the counters don't depend on the state of the cache
+	 */
+	private void countCachedType(List<Element> elements) {
+		for (Element element : elements) {
+			String enclosingName = getEnclosingName(element);
+			if (ignoreProperty(enclosingName, String.format("%s.%s", enclosingName, element.getSimpleName()))) {
+				continue;
+			}
+			boolean counted = false;
+			for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+				ConstraintSlot slot = converters.slotFor(annotationMirror);
+				if (slot == null) {
+					continue;
+				}
+				if (!counted) {
+					stats.countProperty();
+					counted = true;
+				}
+				stats.countAnnotation(slot.getAnnotationType().getName());
+			}
+		}
+	}
+
+	private boolean ignoreProperty(String enclosingName, String name) {
+		if (stats == null) {
+			return ctx.ignoreProperty(enclosingName, name);
+		}
+		long start = System.nanoTime();
+		boolean ignored = ctx.ignoreProperty(enclosingName, name);
+		stats.addTime(ProcessingStats.PHASE_IGNORE, start);
+		stats.countIgnore(ignored);
+		return ignored;
+	}
+
+	/**
+	 * @return the names and constraint-annotations including their values of the given elements
+	 */
+	private String getSignature(List<Element> elements) {
+		List<String> signatures = new ArrayList<>();
+		for (Element element : elements) {
+			StringBuilder signature = new StringBuilder();
+			signature.append(getEnclosingName(element)).append('.').append(element.getSimpleName());
+			for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
+				if (converters.slotFor(annotationMirror) != null) {
+					signature.append(' ').append(annotationMirror);
+				}
+			}
+			signatures.add(signature.toString());
+		}
+		Collections.sort(signatures);
+		StringBuilder result = new StringBuilder();
+		for (String signature : signatures) {
+			result.append(signature).append('\n');
+		}
+		return result.toString();
+	}
+
+	private Map<String, Constraints> readCache(String key) {
+		try {
+			return cache.read(key);
+		} catch (IOException ex) {
+			messager.printMessage(Kind.WARNING, String.format("Could not read cache: %s", ex.getMessage()));
+			return null;
+		}
+	}
+
+	private void writeCache(String key, Map<String, Constraints> constraints) {
+		try {
+			cache.write(key, constraints);
+		} catch (IOException ex) {
+			messager.printMessage(Kind.WARNING, String.format("Could not write cache: %s", ex.getMessage()));
+		}
+	}
+
+	/**
+	 * @return the converted constraints in the order of the descriptors
+	 */
+	private Constraint[] convert(List<ConstraintDescriptor> descriptors) {
+		Constraint[] results = new Constraint[descriptors.size()];
+		if (pool == null) {
+			pool = new ForkJoinPool();
+		}
+		pool.invoke(new ConvertTask(descriptors, results, 0, results.length));
+		return results;
+	}
+
+	/**
+	 * releases the threads of the parallel conversion after the last round
+	 */
+	public void shutdown() {
+		if (pool != null) {
+			pool.shutdown();
+			pool = null;
+		}
+	}
+
+	/**
+	 * @return the qualified name of the type given element is declared in
+	 */
+	private String getTypeName(Element element) {
+		Element type = element.getEnclosingElement();
+		while (!(type instanceof TypeElement)) {
+			type = type.getEnclosingElement();
+		}
+		return ((TypeElement) type).getQualifiedName().toString();
+	}
+
+	/**
+	 * @return the full qualified name of the element enclosing given element
+	 */
+	private String getEnclosingName(Element element) {
+		return String.format("%s.%s", ctx.getElementUtils().getPackageOf(element), element.getEnclosingElement().getSimpleName());
+	}
+
+	/**
+	 * Converts a range of descriptors, splitting it until it is small enough
+	 */
+	private static class ConvertTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private static final int THRESHOLD = 256;
+
+		private final List<ConstraintDescriptor> descriptors;
+
+		private final Constraint[] results;
+
+		private final int from;
+
+		private final int to;
+
+		private ConvertTask(List<ConstraintDescriptor> descriptors, Constraint[] results, int from, int to) {
+			this.descriptors = descriptors;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= THRESHOLD) {
+				for (int i = from; i < to; i++) {
+					results[i] = descriptors.get(i).convert();
+				}
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ConvertTask(descriptors, results, from, middle), new ConvertTask(descriptors, results, middle, to));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Modifier;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import com.google.gson.ExclusionStrategy;
+import com.google.gson.FieldAttributes;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * The constraints of all properties grouped by the type they are declared in.
+ * Keeping the originating type allows to replace the constraints of recompiled
+ * types and to drop the ones of deleted types without processing all other types again.
+ *
+ * The persisted form looks like
+ * {"settings": "9f86d081...", "types": {"com.example.Person": {"com.example.Person.name": {"notNull": {...}}}}}
+ * @author Florian Hirsch
+ */
+public class ConstraintIndex {
+
+	private static final String PROPERTY_SETTINGS = "settings";
+
+	private static final String PROPERTY_TYPES = "types";
+
+	private static final String FIELD_MESSAGE_TEMPLATE = "messageTemplate";
+
+	private static final String FIELD_JS_PROBLEM = "jsProblem";
+
+	private final Gson gson = createGson();
+
+	private final Map<String, Map<String, Constraints>> types = new TreeMap<>();
+
+	/** the types of an index read with other settings */
+	private final Set<String> staleTypes = new TreeSet<>();
+
+	/**
+	 * @return the Constraints for given property of given type
+	 * or a new one if not present in the index.
+	 */
+	public Constraints getConstraints(String type, String propertyName) {
+		Map<String, Constraints> properties = types.get(type);
+		if (properties == null) {
+			properties = new TreeMap<>();
+			types.put(type, properties);
+		}
+		Constraints constraints = properties.get(propertyName);
+		if (constraints == null) {
+			constraints = new Constraints();
+			properties.put(propertyName, constraints);
+		}
+		return constraints;
+	}
+
+	/**
+	 * @return a Gson for the persisted constraints, which includes the transient message-templates
+	 * so the messages of the variants can be resolved and the problems of untranslatable regexps,
+	 * but no other transient fields like cached hashCodes
+	 */
+	static Gson createGson() {
+		return new GsonBuilder().excludeFieldsWithModifiers(Modifier.STATIC).setExclusionStrategies(new ExclusionStrategy() {
+			@Override
+			public boolean shouldSkipField(FieldAttributes field) {
+				return field.hasModifier(Modifier.TRANSIENT) && !FIELD_MESSAGE_TEMPLATE.equals(field.getName())
+						&& !FIELD_JS_PROBLEM.equals(field.getName());
+			}
+
+			@Override
+			public boolean shouldSkipClass(Class<?> type) {
+				return false;
+			}
+		}).create();
+	}
+
+	/**
+	 * @return the constraints of the properties of given type or null if the type has no constraints
+	 */
+	public Map<String, Constraints> getTypeConstraints(String type) {
+		Map<String, Constraints> properties = types.get(type);
+		return properties == null ? null : Collections.unmodifiableMap(properties);
+	}
+
+	/**
+	 * replaces the constraints of given type
+	 */
+	public void putTypeConstraints(String type, Map<String, Constraints> properties) {
+		types.put(type, new TreeMap<>(properties));
+	}
+
+	/**
+	 * @return the qualified names of all types with constraints
+	 */
+	public Set<String> getTypes() {
+		return Collections.unmodifiableSet(types.keySet());
+	}
+
+	/**
+	 * @return the qualified names of the types of an index which was created with other settings,
+	 * their constraints are not read
+	 */
+	public Set<String> getStaleTypes() {
+		return Collections.unmodifiableSet(staleTypes);
+	}
+
+	/**
+	 * removes the constraints of all given types
+	 */
+	public void removeTypes(Collection<String> typeNames) {
+		types.keySet().removeAll(typeNames);
+	}
+
+	/**
+	 * replaces the constraints of all types contained in the given index
+	 */
+	public void putAll(ConstraintIndex index) {
+		types.putAll(index.types);
+	}
+
+	/**
+	 * @return the constraints of all types sorted by the full qualified property-name
+	 */
+	public Map<String, Constraints> getConstraints() {
+		Map<String, Constraints> result = new TreeMap<>();
+		for (Map<String, Constraints> properties : types.values()) {
+			result.putAll(properties);
+		}
+		return result;
+	}
+
+	/**
+	 * @param settings identifies the settings the constraints were created with
+	 */
+	public void write(String settings, Writer out) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.setHtmlSafe(true);
+		writer.beginObject();
+		writer.name(PROPERTY_SETTINGS).value(settings);
+		writer.name(PROPERTY_TYPES);
+		writer.beginObject();
+		for (Map.Entry<String, Map<String, Constraints>> type : types.entrySet()) {
+			writer.name(type.getKey());
+			writer.beginObject();
+			for (Map.Entry<String, Constraints> entry : type.getValue().entrySet()) {
+				writer.name(entry.getKey());
+				gson.toJson(entry.getValue(), Constraints.class, writer);
+			}
+			writer.endObject();
+		}
+		writer.endObject();
+		writer.endObject();
+		writer.flush();
+	}
+
+	/**
+	 * Reads an index written by write().
+	 * @param settings the constraints are only read if they were created with the same settings,
+	 * otherwise only the names of the types are read as stale types
+	 * @return true if the constraints were read
+	 */
+	public boolean read(String settings, Reader in) throws IOException {
+		try {
+			JsonReader reader = new JsonReader(in);
+			reader.beginObject();
+			if (!PROPERTY_SETTINGS.equals(reader.nextName())) {
+				return false;
+			}
+			boolean sameSettings = settings.equals(reader.nextString());
+			if (!PROPERTY_TYPES.equals(reader.nextName())) {
+				return false;
+			}
+			Map<String, Map<String, Constraints>> result = new TreeMap<>();
+			reader.beginObject();
+			while (reader.peek() != JsonToken.END_OBJECT) {
+				String type = reader.nextName();
+				if (!sameSettings) {
+					staleTypes.add(type);
+					reader.skipValue();
+					continue;
+				}
+				Map<String, Constraints> properties = new TreeMap<>();
+				result.put(type, properties);
+				reader.beginObject();
+				while (reader.peek() != JsonToken.END_OBJECT) {
+					String propertyName = reader.nextName();
+					Constraints constraints = gson.fromJson(reader, Constraints.class);
+					properties.put(propertyName, constraints);
+				}
+				reader.endObject();
+			}
+			reader.endObject();
+			if (!sameSettings) {
+				return false;
+			}
+			types.putAll(result);
+			return true;
+		} catch (IllegalStateException | JsonParseException ex) {
+			throw new IOException(String.format("Invalid index: %s", ex.getMessage()));
+		}
+	}
+
+}
@@ -0,0 +1,58 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Replaces full qualified property-names by the keys defined in the mappingFile
+ * @author Florian Hirsch
+ */
+public class ConstraintMapping {
+
+	private ConstraintMapping() {
+	}
+
+	/**
+	 * @param mapping may be null
+	 * @return the mapped key of given property
+	 */
+	public static String keyOf(Properties mapping, String fqn) {
+		return mapping != null && mapping.containsKey(fqn) 
+				? mapping.getProperty(fqn) 
+				: fqn;
+	}
+
+	/**
+	 * @param mapping may be null
+	 * @return the constraints keyed by the mapped keys, sorted
+	 */
+	public static Map<String, Constraints> apply(Properties mapping, Map<String, Constraints> constraints) {
+		if (mapping == null) {
+			return constraints;
+		}
+		Map<String, Constraints> result = new TreeMap<>();
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			result.put(keyOf(mapping, entry.getKey()), entry.getValue());
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,156 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import com.google.gson.Gson;
+
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.converter.MessageResolver;
+
+/**
+ * Precomputed views of the constraints for one validation-group and one locale each.
+ * A variant contains only the constraints of its group with the messages resolved
+ * for its locale, so the client doesn't have to filter the groups itself.
+ * A constraint without groups belongs to the Default-group. Groups are matched
+ * by their full qualified name, the inheritance of groups is not taken into account.
+ * @author Florian Hirsch
+ */
+public class ConstraintVariants {
+
+	public static final String DEFAULT_GROUP = "javax.validation.groups.Default";
+
+	private static final String DEFAULT_GROUP_ALIAS = "Default";
+
+	private static final String VARIANT_DIRECTORY = "variants/";
+
+	private static final String VARIANT_EXTENSION = ".json";
+
+	private static final String LOCALE_SEPARATOR = "_";
+
+	private final Gson gson = new Gson();
+
+	private final List<String> groups;
+
+	/** contains null for the messages without locale */
+	private final List<String> locales;
+
+	private ConstraintVariants(List<String> groups, List<String> locales) {
+		this.groups = groups;
+		this.locales = locales;
+	}
+
+	/**
+	 * @param groups comma-separated full qualified names of the groups, 'Default' for the Default-group.
+	 * Only the Default-group if null.
+	 * @param locales comma-separated locales like 'de,en_US'. Only the messages without locale if null.
+	 * @return null if neither groups nor locales are given
+	 */
+	public static ConstraintVariants forOptions(String groups, String locales) {
+		if (groups == null && locales == null) {
+			return null;
+		}
+		return new ConstraintVariants(
+				groups == null ? Collections.singletonList(DEFAULT_GROUP_ALIAS) : split(groups),
+				locales == null ? Collections.<String>singletonList(null) : split(locales));
+	}
+
+	private static List<String> split(String option) {
+		List<String> result = new ArrayList<>();
+		for (String value : option.split(",")) {
+			if (!value.trim().isEmpty()) {
+				result.add(value.trim());
+			}
+		}
+		return Collections.unmodifiableList(result);
+	}
+
+	public List<String> getGroups() {
+		return groups;
+	}
+
+	/**
+	 * @return the locales of the variants, null stands for the messages without locale
+	 */
+	public List<String> getLocales() {
+		return locales;
+	}
+
+	/**
+	 * @param locale may be null
+	 * @return the name of the file of the variant like 'variants/com.example.Groups.User_de.json'
+	 */
+	public String getFilename(String group, String locale) {
+		return VARIANT_DIRECTORY + group + (locale == null ? "" : LOCALE_SEPARATOR + locale) + VARIANT_EXTENSION;
+	}
+
+	/**
+	 * @param group as given in the options
+	 * @param messages the messages of the locale of the variant, may be null
+	 * @return copies of all constraints of given group without the groups 
+	 * and with the messages resolved by given messages. Properties without
+	 * constraints in the group are omitted.
+	 */
+	public Map<String, Constraints> filter(Map<String, Constraints> constraints, String group, Properties messages) {
+		String groupName = DEFAULT_GROUP_ALIAS.equals(group) ? DEFAULT_GROUP : group;
+		MessageResolver messageResolver = new MessageResolver(messages);
+		Map<String, Constraints> result = new TreeMap<>();
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			Constraints filtered = null;
+			for (ConstraintSlot slot : ConstraintSlot.values()) {
+				Constraint constraint = slot.get(entry.getValue());
+				if (constraint == null || !belongsTo(constraint, groupName)) {
+					continue;
+				}
+				if (filtered == null) {
+					filtered = new Constraints();
+				}
+				slot.set(filtered, copy(constraint, messageResolver));
+			}
+			if (filtered != null) {
+				result.put(entry.getKey(), filtered);
+			}
+		}
+		return result;
+	}
+
+	private boolean belongsTo(Constraint constraint, String groupName) {
+		List<String> constraintGroups = constraint.getGroups();
+		if (constraintGroups == null) {
+			return DEFAULT_GROUP.equals(groupName);
+		}
+		return constraintGroups.contains(groupName);
+	}
+
+	private Constraint copy(Constraint constraint, MessageResolver messageResolver) {
+		Constraint copy = gson.fromJson(gson.toJsonTree(constraint), constraint.getClass());
+		copy.setGroups(null);
+		if (constraint.getMessageTemplate() != null) {
+			copy.setMessageTemplate(constraint.getMessageTemplate());
+			copy.setMessage(messageResolver.resolve(constraint.getMessageTemplate(), constraint.getMessageAttributes()));
+		}
+		return copy;
+	}
+
+}
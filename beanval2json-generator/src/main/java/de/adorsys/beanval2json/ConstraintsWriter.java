@@ -0,0 +1,205 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonWriter;
+
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Streams the constraints as JSON-Object entry by entry,
+ * so the document is never held in memory as a whole.
+ *
+ * With dictionary-encoding the document looks like
+ * {"constraints": {"0:Person.name": {"notNull": {"groups": [1]}}, ":mappedKey": {...}}, "strings": ["com.example", "com.example.Groups.User"]}
+ * The package of each key as well as messages, groups and payload are replaced by their index in the strings-table.
+ * Keys without package start with a colon.
+ * @author Florian Hirsch
+ */
+public class ConstraintsWriter {
+
+	public static final String FORMAT_PRETTY = "pretty";
+
+	public static final String FORMAT_COMPACT = "compact";
+
+	public static final String ENCODING_PLAIN = "plain";
+
+	public static final String ENCODING_DICTIONARY = "dictionary";
+
+	private static final String INDENT = "  ";
+
+	private static final String KEY_SEPARATOR = ":";
+
+	private static final String PROPERTY_CONSTRAINTS = "constraints";
+
+	private static final String PROPERTY_STRINGS = "strings";
+
+	private static final String PROPERTY_SHARDS = "shards";
+
+	private static final String PROPERTY_KEYS = "keys";
+
+	private static final String PROPERTY_MESSAGE = "message";
+
+	private static final String[] INTERNED_PROPERTIES = { "groups", "payload" };
+
+	private final Gson gson = new Gson();
+
+	private final boolean prettyPrinting;
+
+	private final boolean dictionary;
+
+	public ConstraintsWriter(boolean prettyPrinting, boolean dictionary) {
+		this.prettyPrinting = prettyPrinting;
+		this.dictionary = dictionary;
+	}
+
+	/**
+	 * @param format one of FORMAT_PRETTY (default if null) or FORMAT_COMPACT
+	 * @param encoding one of ENCODING_PLAIN (default if null) or ENCODING_DICTIONARY
+	 */
+	public static ConstraintsWriter forOptions(String format, String encoding) throws ProcessingException {
+		return new ConstraintsWriter(
+				FORMAT_PRETTY.equals(option(format, FORMAT_PRETTY, FORMAT_COMPACT)),
+				ENCODING_DICTIONARY.equals(option(encoding, ENCODING_PLAIN, ENCODING_DICTIONARY)));
+	}
+
+	private static String option(String value, String defaultValue, String alternative) throws ProcessingException {
+		if (value == null || defaultValue.equals(value) || alternative.equals(value)) {
+			return value == null ? defaultValue : value;
+		}
+		throw new ProcessingException(String.format("Unknown value '%s', expected '%s' or '%s'", value, defaultValue, alternative));
+	}
+
+	public void write(Map<String, Constraints> constraints, Writer out) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.setIndent(prettyPrinting ? INDENT : "");
+		writer.setHtmlSafe(true);
+		if (dictionary) {
+			writeDictionaryEncoded(constraints, writer);
+		} else {
+			writePlain(constraints, writer);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Writes the manifest of the shards like
+	 * {"shards": {"com.example.Person": "constraints/com.example.Person.json"}, "keys": {"mappedKey": "com.example.Person"}}
+	 * @param shardFiles the names of the written files keyed by the name of the shard
+	 */
+	public void writeManifest(Map<String, String> shardFiles, ShardedConstraints shardedConstraints, Writer out) throws IOException {
+		JsonWriter writer = new JsonWriter(out);
+		writer.setIndent(prettyPrinting ? INDENT : "");
+		writer.setHtmlSafe(true);
+		writer.beginObject();
+		writer.name(PROPERTY_SHARDS);
+		writer.beginObject();
+		for (Map.Entry<String, String> entry : shardFiles.entrySet()) {
+			writer.name(entry.getKey()).value(entry.getValue());
+		}
+		writer.endObject();
+		writer.name(PROPERTY_KEYS);
+		writer.beginObject();
+		for (Map.Entry<String, String> entry : shardedConstraints.getMappedKeys().entrySet()) {
+			writer.name(entry.getKey()).value(entry.getValue());
+		}
+		writer.endObject();
+		writer.endObject();
+		writer.flush();
+	}
+
+	private void writePlain(Map<String, Constraints> constraints, JsonWriter writer) throws IOException {
+		writer.beginObject();
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			writer.name(entry.getKey());
+			gson.toJson(entry.getValue(), Constraints.class, writer);
+		}
+		writer.endObject();
+	}
+
+	private void writeDictionaryEncoded(Map<String, Constraints> constraints, JsonWriter writer) throws IOException {
+		Map<String, Integer> strings = new LinkedHashMap<>();
+		writer.beginObject();
+		writer.name(PROPERTY_CONSTRAINTS);
+		writer.beginObject();
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			writer.name(encodeKey(entry.getKey(), strings));
+			JsonObject json = gson.toJsonTree(entry.getValue(), Constraints.class).getAsJsonObject();
+			for (Map.Entry<String, JsonElement> constraint : json.entrySet()) {
+				encodeValues(constraint.getValue().getAsJsonObject(), strings);
+			}
+			gson.toJson(json, writer);
+		}
+		writer.endObject();
+		// the table is complete only after all entries are written
+		writer.name(PROPERTY_STRINGS);
+		writer.beginArray();
+		for (String string : strings.keySet()) {
+			writer.value(string);
+		}
+		writer.endArray();
+		writer.endObject();
+	}
+
+	/**
+	 * replaces the package of the key (everything before 'Type.property') by its index
+	 */
+	private String encodeKey(String key, Map<String, Integer> strings) {
+		int typeSeparator = key.lastIndexOf('.', key.lastIndexOf('.') - 1);
+		if (typeSeparator <= 0) {
+			return KEY_SEPARATOR + key;
+		}
+		return index(key.substring(0, typeSeparator), strings) + KEY_SEPARATOR + key.substring(typeSeparator + 1);
+	}
+
+	private void encodeValues(JsonObject constraint, Map<String, Integer> strings) {
+		JsonElement message = constraint.get(PROPERTY_MESSAGE);
+		if (message != null) {
+			constraint.addProperty(PROPERTY_MESSAGE, index(message.getAsString(), strings));
+		}
+		for (String property : INTERNED_PROPERTIES) {
+			JsonElement values = constraint.get(property);
+			if (values == null) {
+				continue;
+			}
+			JsonArray indices = new JsonArray();
+			for (JsonElement value : values.getAsJsonArray()) {
+				indices.add(new JsonPrimitive(index(value.getAsString(), strings)));
+			}
+			constraint.add(property, indices);
+		}
+	}
+
+	private int index(String string, Map<String, Integer> strings) {
+		Integer index = strings.get(string);
+		if (index == null) {
+			index = strings.size();
+			strings.put(string, index);
+		}
+		return index;
+	}
+
+}
@@ -16,12 +16,14 @@
 package de.adorsys.beanval2json;
 
 import java.util.Properties;
-import java.util.Set;
-import java.util.regex.Pattern;
 
 import javax.lang.model.util.Elements;
 import javax.lang.model.util.Types;
 
+import de.adorsys.beanval2json.converter.Interner;
+import de.adorsys.beanval2json.converter.MessageResolver;
+import de.adorsys.beanval2json.converter.RegexpTranslator;
+
 /**
  * Context for the Converters
  * @author Florian Hirsch
@@ -34,13 +36,20 @@ public class ConverterContext {
 	
 	private Properties messages;
 	
-	private Set<String> ignoredProperties;
+	private IgnoreRules ignoreRules;
+	
+	private MessageResolver messageResolver;
+	
+	private Interner interner = new Interner();
+	
+	private RegexpTranslator regexpTranslator = new RegexpTranslator();
 
-	public ConverterContext(Types typeUtils, Elements elementUtils, Properties messages, Set<String> ignoredProperties) {
+	public ConverterContext(Types typeUtils, Elements elementUtils, Properties messages, IgnoreRules ignoreRules) {
 		this.typeUtils = typeUtils;
 		this.elementUtils = elementUtils;
 		this.messages = messages;
-		this.ignoredProperties = ignoredProperties;
+		this.ignoreRules = ignoreRules;
+		this.messageResolver = new MessageResolver(messages);
 	}
 
 	public Types getTypeUtils() {
@@ -55,16 +64,27 @@ public class ConverterContext {
 		return messages;
 	}
 
+	public MessageResolver getMessageResolver() {
+		return messageResolver;
+	}
+
+	public Interner getInterner() {
+		return interner;
+	}
+
+	public RegexpTranslator getRegexpTranslator() {
+		return regexpTranslator;
+	}
+
 	public boolean ignoreProperty(String fqn) {
-		if (ignoredProperties == null) {
-			return false;
-		}
-		for (String property : ignoredProperties) {
-			if (Pattern.compile(property).matcher(fqn).matches()) {
-				return true;
-			}
-		}
-		return false;
+		return ignoreRules != null && ignoreRules.matches(fqn);
+	}
+
+	/**
+	 * @param type the full qualified name of the enclosing type of the property
+	 */
+	public boolean ignoreProperty(String type, String fqn) {
+		return ignoreRules != null && ignoreRules.matches(type, fqn);
 	}
 	
 }
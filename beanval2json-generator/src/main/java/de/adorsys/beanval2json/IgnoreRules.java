@@ -0,0 +1,229 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiled form of the ignoreFile.
+ * Rules which are plain property- or class-names (optionally ending with '.*')
+ * are stored in a prefix-trie, all other rules are combined to one Pattern.
+ * Rules with back-references, named groups or \Q are matched separately, as they
+ * could change the meaning of the combined Pattern or not compile within it.
+ * A dot within a plain rule is treated as package-separator.
+ * @author Florian Hirsch
+ */
+public class IgnoreRules {
+
+	private static final String WILDCARD_SUFFIX = ".*";
+
+	/** back-references, quotations and named groups */
+	private static final Pattern SEPARATE_RULE = Pattern.compile("\\\\([1-9]|k<|Q)|\\(\\?<[a-zA-Z]");
+
+	/** marks types whose properties are all ignored */
+	private static final Node IGNORE_ALL = new Node();
+
+	/** marks types for which no plain rule exists */
+	private static final Node NO_RULE = new Node();
+
+	private final Node root = new Node();
+
+	private final List<Matcher> matchers = new ArrayList<>();
+
+	private final Map<String, Node> typeDecisions = new HashMap<>();
+
+	private IgnoreRules() {
+	}
+
+	/**
+	 * Compiles the given rules. Each rule is a regular expression which has to
+	 * match the full qualified name of a property.
+	 */
+	public static IgnoreRules compile(Collection<String> rules) throws ProcessingException {
+		IgnoreRules ignoreRules = new IgnoreRules();
+		StringBuilder combined = new StringBuilder();
+		List<String> combinedRules = new ArrayList<>();
+		for (String rule : rules) {
+			if (rule.isEmpty()) {
+				continue;
+			}
+			try {
+				Pattern.compile(rule);
+			} catch (PatternSyntaxException ex) {
+				throw new ProcessingException(String.format("Invalid rule '%s' in ignoreFile: %s", rule, ex.getDescription()));
+			}
+			if (ignoreRules.addPlainRule(rule)) {
+				continue;
+			}
+			if (SEPARATE_RULE.matcher(rule).find()) {
+				// group-numbers would be shifted, group-names could be duplicated and
+				// an unterminated \Q would swallow the following rules within the combined Pattern
+				ignoreRules.matchers.add(Pattern.compile(rule).matcher(""));
+				continue;
+			}
+			combined.append(combined.length() == 0 ? "" : "|").append("(?:").append(rule).append(")");
+			combinedRules.add(rule);
+		}
+		if (combined.length() > 0) {
+			try {
+				ignoreRules.matchers.add(Pattern.compile(combined.toString()).matcher(""));
+			} catch (PatternSyntaxException ex) {
+				// each rule compiles on its own, so they are matched one by one
+				for (String rule : combinedRules) {
+					ignoreRules.matchers.add(Pattern.compile(rule).matcher(""));
+				}
+			}
+		}
+		return ignoreRules;
+	}
+
+	/**
+	 * @return true if the given full qualified property-name should be ignored
+	 */
+	public boolean matches(CharSequence fqn) {
+		return matchesTrie(root, fqn, 0) || matchesPattern(fqn);
+	}
+
+	/**
+	 * Like matches(fqn) but remembers the decisions for the enclosing type,
+	 * so only the property-name has to be checked for further properties.
+	 * @param type the full qualified name of the enclosing type, fqn has to start with type + '.'
+	 */
+	public boolean matches(String type, CharSequence fqn) {
+		Node node = typeDecisions.get(type);
+		if (node == null) {
+			node = decide(type);
+			typeDecisions.put(type, node);
+		}
+		if (node == IGNORE_ALL) {
+			return true;
+		}
+		return (node != NO_RULE && matchesTrie(node, fqn, type.length() + 1)) || matchesPattern(fqn);
+	}
+
+	/**
+	 * @return the node to continue with for properties of given type
+	 */
+	private Node decide(String type) {
+		Node node = root;
+		for (int i = 0; i <= type.length(); i++) {
+			if (node.wildcard) {
+				return IGNORE_ALL;
+			}
+			node = node.child(i < type.length() ? type.charAt(i) : '.');
+			if (node == null) {
+				return NO_RULE;
+			}
+		}
+		return node;
+	}
+
+	private boolean matchesTrie(Node node, CharSequence fqn, int start) {
+		for (int i = start; node != null; i++) {
+			if (node.wildcard) {
+				return true;
+			}
+			if (i == fqn.length()) {
+				return node.terminal;
+			}
+			node = node.child(fqn.charAt(i));
+		}
+		return false;
+	}
+
+	private boolean matchesPattern(CharSequence fqn) {
+		for (Matcher matcher : matchers) {
+			if (matcher.reset(fqn).matches()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Adds the rule to the trie if it is a plain name optionally followed by '.*'
+	 * @return false if the rule is a real regular expression
+	 */
+	private boolean addPlainRule(String rule) {
+		boolean wildcard = rule.endsWith(WILDCARD_SUFFIX);
+		int end = wildcard ? rule.length() - WILDCARD_SUFFIX.length() : rule.length();
+		StringBuilder name = new StringBuilder(end);
+		for (int i = 0; i < end; i++) {
+			char c = rule.charAt(i);
+			if (c == '\\' && i + 1 < end && rule.charAt(i + 1) == '.') {
+				name.append('.');
+				i++;
+			} else if (c == '.' || c == '_' || Character.isLetterOrDigit(c)) {
+				name.append(c);
+			} else {
+				return false;
+			}
+		}
+		Node node = root;
+		for (int i = 0; i < name.length(); i++) {
+			node = node.addChild(name.charAt(i));
+		}
+		if (wildcard) {
+			node.wildcard = true;
+		} else {
+			node.terminal = true;
+		}
+		return true;
+	}
+
+	private static final class Node {
+
+		private char[] keys = new char[0];
+
+		private Node[] children = new Node[0];
+
+		/** a rule ends here */
+		private boolean terminal;
+
+		/** a rule ending with '.*' ends here */
+		private boolean wildcard;
+
+		private Node child(char c) {
+			for (int i = 0; i < keys.length; i++) {
+				if (keys[i] == c) {
+					return children[i];
+				}
+			}
+			return null;
+		}
+
+		private Node addChild(char c) {
+			Node child = child(c);
+			if (child == null) {
+				child = new Node();
+				keys = Arrays.copyOf(keys, keys.length + 1);
+				children = Arrays.copyOf(children, children.length + 1);
+				keys[keys.length - 1] = c;
+				children[children.length - 1] = child;
+			}
+			return child;
+		}
+	}
+
+}
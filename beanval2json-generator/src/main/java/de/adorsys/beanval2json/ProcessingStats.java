@@ -0,0 +1,201 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Wall-time of the phases and counters of a processor-run, enabled by the stats-option.
+ * The times of a phase are summed up over all rounds, ignore and convert are part of collect.
+ * All methods are called on the compiler-thread.
+ * @author Florian Hirsch
+ */
+public class ProcessingStats {
+
+	public static final String PHASE_LOAD = "load";
+	public static final String PHASE_IGNORE = "ignore";
+	public static final String PHASE_CONVERT = "convert";
+	public static final String PHASE_COLLECT = "collect";
+	public static final String PHASE_INCREMENTAL = "incremental";
+	public static final String PHASE_MAPPING = "mapping";
+	public static final String PHASE_WRITE = "write";
+
+	private static final double NANOS_PER_MILLI = 1000000d;
+
+	/** nanoseconds per phase in the order the phases were first recorded */
+	private final Map<String, Long> phases = new LinkedHashMap<>();
+
+	/** number of annotated elements per annotation-type */
+	private final Map<String, Integer> annotations = new TreeMap<>();
+
+	/** bytes per written file */
+	private final Map<String, Long> output = new TreeMap<>();
+
+	private int properties;
+
+	private int ignoreHits;
+
+	private int ignoreMisses;
+
+	private int cacheHits;
+
+	private int cacheMisses;
+
+	public ProcessingStats() {
+		for (String phase : new String[] { PHASE_LOAD, PHASE_COLLECT, PHASE_IGNORE, PHASE_CONVERT }) {
+			phases.put(phase, 0L);
+		}
+	}
+
+	/**
+	 * @param start the value of System.nanoTime() at the start of the phase
+	 */
+	public void addTime(String phase, long start) {
+		long elapsed = System.nanoTime() - start;
+		Long time = phases.get(phase);
+		phases.put(phase, time == null ? elapsed : time + elapsed);
+	}
+
+	public void countAnnotation(String annotation) {
+		Integer count = annotations.get(annotation);
+		annotations.put(annotation, count == null ? 1 : count + 1);
+	}
+
+	/**
+	 * counts a property with at least one constraint which is not ignored
+	 */
+	public void countProperty() {
+		properties++;
+	}
+
+	public void countIgnore(boolean ignored) {
+		if (ignored) {
+			ignoreHits++;
+		} else {
+			ignoreMisses++;
+		}
+	}
+
+	public void countCache(boolean hit) {
+		if (hit) {
+			cacheHits++;
+		} else {
+			cacheMisses++;
+		}
+	}
+
+	public void addOutput(String filename, long bytes) {
+		output.put(filename, bytes);
+	}
+
+	public long getTime(String phase) {
+		Long time = phases.get(phase);
+		return time == null ? 0 : time;
+	}
+
+	public Map<String, Integer> getAnnotations() {
+		return annotations;
+	}
+
+	public int getProperties() {
+		return properties;
+	}
+
+	public int getIgnoreHits() {
+		return ignoreHits;
+	}
+
+	public int getIgnoreMisses() {
+		return ignoreMisses;
+	}
+
+	public long getOutputBytes() {
+		long result = 0;
+		for (long bytes : output.values()) {
+			result += bytes;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the summary to be printed as note by the processor
+	 */
+	public String getSummary() {
+		StringBuilder result = new StringBuilder("beanval2json stats:");
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			String indent = isPartOfCollect(phase.getKey()) ? "    " : "  ";
+			result.append(String.format("%n%s%-12s %10.1f ms", indent, phase.getKey(), phase.getValue() / NANOS_PER_MILLI));
+		}
+		int elements = 0;
+		for (int count : annotations.values()) {
+			elements += count;
+		}
+		result.append(String.format("%n  %d annotations on %d properties, %d ignored, %d not ignored", 
+				elements, properties, ignoreHits, ignoreMisses));
+		if (cacheHits + cacheMisses > 0) {
+			result.append(String.format("%n  %d types from cache, %d converted", cacheHits, cacheMisses));
+		}
+		result.append(String.format("%n  %d bytes in %d files", getOutputBytes(), output.size()));
+		return result.toString();
+	}
+
+	private boolean isPartOfCollect(String phase) {
+		return PHASE_IGNORE.equals(phase) || PHASE_CONVERT.equals(phase);
+	}
+
+	/**
+	 * writes the stats as JSON with the times in milliseconds
+	 */
+	public void write(Writer writer) throws IOException {
+		JsonWriter jsonWriter = new JsonWriter(writer);
+		jsonWriter.setIndent("  ");
+		jsonWriter.beginObject();
+		jsonWriter.name("phases").beginObject();
+		for (Map.Entry<String, Long> phase : phases.entrySet()) {
+			jsonWriter.name(phase.getKey()).value(Math.round(phase.getValue() / 1000d) / 1000d);
+		}
+		jsonWriter.endObject();
+		jsonWriter.name("annotations").beginObject();
+		for (Map.Entry<String, Integer> annotation : annotations.entrySet()) {
+			jsonWriter.name(annotation.getKey()).value(annotation.getValue());
+		}
+		jsonWriter.endObject();
+		jsonWriter.name("properties").value(properties);
+		jsonWriter.name("ignore").beginObject();
+		jsonWriter.name("hits").value(ignoreHits);
+		jsonWriter.name("misses").value(ignoreMisses);
+		jsonWriter.endObject();
+		jsonWriter.name("cache").beginObject();
+		jsonWriter.name("hits").value(cacheHits);
+		jsonWriter.name("misses").value(cacheMisses);
+		jsonWriter.endObject();
+		jsonWriter.name("output").beginObject();
+		for (Map.Entry<String, Long> file : output.entrySet()) {
+			jsonWriter.name(file.getKey()).value(file.getValue());
+		}
+		jsonWriter.endObject();
+		jsonWriter.name("outputBytes").value(getOutputBytes());
+		jsonWriter.endObject();
+		jsonWriter.flush();
+	}
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Content of a resource which is streamed to the file by the ResourceHandler
+ * @author Florian Hirsch
+ */
+public interface ResourceContent {
+
+	/**
+	 * writes the content to the given writer.
+	 * The writer is buffered and will be closed by the caller.
+	 */
+	void writeTo(Writer writer) throws IOException;
+
+}
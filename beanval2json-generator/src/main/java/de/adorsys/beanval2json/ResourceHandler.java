@@ -15,41 +15,246 @@
  */
 package de.adorsys.beanval2json;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.FilterOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.net.URI;
-import java.net.URISyntaxException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashSet;
-import java.util.List;
+import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.processing.Filer;
-import javax.tools.FileObject;
 import javax.tools.StandardLocation;
 
+import com.google.gson.stream.JsonWriter;
+
 public class ResourceHandler {
 
 	private static final String MODEL_FILE = "constraints.json";
 	
+	private static final String MANIFEST_FILE = "constraints-manifest.json";
+	
+	private static final String INDEX_FILE = "index.json";
+	
+	private static final String CONSTRAINT_INDEX_FILE = "beanval2json-incremental.json";
+	
+	private static final String STATS_FILE = "beanval2json-stats.json";
+	
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+	
+	/** number of bytes of the digest used in filenames */
+	private static final int HASH_LENGTH = 8;
+	
+	private static final String GZIP_EXTENSION = ".gz";
+	
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
 	private Filer filter;
+	
+	private boolean hashFilenames;
+	
+	private boolean gzip;
+	
+	/** records the bytes of each written file, may be null */
+	private ProcessingStats stats;
+	
+	/** the names of all written files keyed by their name without hash */
+	private Map<String, String> writtenFiles = new TreeMap<>();
 
 	public ResourceHandler(Filer filter) {
+		this(filter, false, false);
+	}
+	
+	/**
+	 * @param hashFilenames true to insert a digest of the content into the name of each written file
+	 * @param gzip true to write a gzipped copy next to each written file
+	 */
+	public ResourceHandler(Filer filter, boolean hashFilenames, boolean gzip) {
+		this(filter, hashFilenames, gzip, null);
+	}
+	
+	/**
+	 * @param stats records the bytes of each written file, may be null
+	 */
+	public ResourceHandler(Filer filter, boolean hashFilenames, boolean gzip, ProcessingStats stats) {
 		this.filter = filter;
+		this.hashFilenames = hashFilenames;
+		this.gzip = gzip;
+		this.stats = stats;
+	}
+	
+	public void writeModel(ResourceContent content) throws ProcessingException {
+		writeResource(MODEL_FILE, content);
+	}
+	
+	public void writeManifest(ResourceContent content) throws ProcessingException {
+		writeResource(MANIFEST_FILE, content);
 	}
 	
-	public void writeModel(String json) throws ProcessingException {
+	/**
+	 * Writes the index.json which maps the names of all written files
+	 * to their names including the hash. Does nothing if the filenames are not hashed.
+	 */
+	public void writeIndex() throws ProcessingException {
+		if (!hashFilenames) {
+			return;
+		}
+		writeFile(INDEX_FILE, new ResourceContent() {
+			@Override
+			public void writeTo(Writer writer) throws IOException {
+				JsonWriter jsonWriter = new JsonWriter(writer);
+				jsonWriter.beginObject();
+				for (Map.Entry<String, String> entry : writtenFiles.entrySet()) {
+					jsonWriter.name(entry.getKey()).value(entry.getValue());
+				}
+				jsonWriter.endObject();
+				jsonWriter.flush();
+			}
+		});
+	}
+	
+	/**
+	 * Writes the constraint index for incremental processing.
+	 * The file is neither hashed nor compressed as it is not meant to be served.
+	 */
+	public void writeConstraintIndex(ResourceContent content) throws ProcessingException {
+		writeFile(CONSTRAINT_INDEX_FILE, content, false);
+	}
+	
+	/**
+	 * Writes the stats of the run next to the output. The file is neither hashed nor compressed
+	 * and its size is not part of the stats.
+	 */
+	public void writeStats(ResourceContent content) throws ProcessingException {
+		writeFile(STATS_FILE, content, false);
+	}
+	
+	/**
+	 * @return a reader for the constraint index written by a previous run or null if there is none
+	 */
+	public Reader openConstraintIndex() throws ProcessingException {
 		try {
-			FileObject file = filter.createResource(StandardLocation.SOURCE_OUTPUT, "", MODEL_FILE);
-			PrintWriter writer = new PrintWriter(file.openWriter());
-			writer.print(json);
-			writer.flush();
-			writer.close();
+			return new BufferedReader(filter.getResource(StandardLocation.SOURCE_OUTPUT, "", CONSTRAINT_INDEX_FILE).openReader(true));
+		} catch (FileNotFoundException | NoSuchFileException ex) {
+			return null;
 		} catch (IOException ex) {
-			throw new ProcessingException(String.format("IOException while writing file '%s': %s", MODEL_FILE, ex.getMessage()));
+			throw new ProcessingException(String.format("IOException while reading file '%s': %s", CONSTRAINT_INDEX_FILE, ex.getMessage()));
+		}
+	}
+	
+	/**
+	 * If hashFilenames is set the content is written twice: first to compute
+	 * the digest for the filename, then to the file itself. Both passes are streamed,
+	 * so the document is never held in memory as a whole.
+	 * @param filename the name of the file relative to the output-directory
+	 * @return the name of the written file
+	 */
+	public String writeResource(String filename, ResourceContent content) throws ProcessingException {
+		String target = hashFilenames ? hashedFilename(filename, content) : filename;
+		writeFile(target, content);
+		writtenFiles.put(filename, target);
+		return target;
+	}
+	
+	private void writeFile(String filename, ResourceContent content) throws ProcessingException {
+		writeFile(filename, content, gzip);
+	}
+	
+	private void writeFile(String filename, ResourceContent content, boolean compress) throws ProcessingException {
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(openFile(filename, compress), UTF_8))) {
+			content.writeTo(writer);
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("IOException while writing file '%s': %s", filename, ex.getMessage()));
+		}
+	}
+	
+	/**
+	 * @return a stream to the given file, which also writes the gzipped file if compress is set
+	 */
+	private OutputStream openFile(String filename, boolean compress) throws IOException {
+		boolean counted = stats != null && !STATS_FILE.equals(filename);
+		OutputStream out = filter.createResource(StandardLocation.SOURCE_OUTPUT, "", filename).openOutputStream();
+		if (counted) {
+			out = new CountingOutputStream(out, filename);
+		}
+		if (compress) {
+			try {
+				out = new TeeOutputStream(out, openGzipFile(filename + GZIP_EXTENSION, counted));
+			} catch (IOException | RuntimeException ex) {
+				out.close();
+				throw ex;
+			}
+		}
+		return out;
+	}
+	
+	/**
+	 * @return a stream compressing to the given file, which is closed if the compression can't be started
+	 */
+	private OutputStream openGzipFile(String filename, boolean counted) throws IOException {
+		OutputStream gzipFile = filter.createResource(StandardLocation.SOURCE_OUTPUT, "", filename).openOutputStream();
+		if (counted) {
+			gzipFile = new CountingOutputStream(gzipFile, filename);
+		}
+		try {
+			return new GZIPOutputStream(gzipFile) {
+				{
+					def.setLevel(Deflater.BEST_COMPRESSION);
+				}
+			};
+		} catch (IOException | RuntimeException ex) {
+			gzipFile.close();
+			throw ex;
+		}
+	}
+	
+	/**
+	 * @return the filename with the hex-encoded digest of the content inserted before the extension
+	 */
+	private String hashedFilename(String filename, ResourceContent content) throws ProcessingException {
+		try {
+			MessageDigest digest = MessageDigest.getInstance(DIGEST_ALGORITHM);
+			OutputStream nullStream = new OutputStream() {
+				@Override
+				public void write(int b) {
+				}
+
+				@Override
+				public void write(byte[] b, int off, int len) {
+				}
+			};
+			try (Writer writer = new BufferedWriter(new OutputStreamWriter(new DigestOutputStream(nullStream, digest), UTF_8))) {
+				content.writeTo(writer);
+			}
+			StringBuilder hash = new StringBuilder();
+			byte[] bytes = digest.digest();
+			for (int i = 0; i < HASH_LENGTH; i++) {
+				hash.append(String.format("%02x", bytes[i]));
+			}
+			int extension = filename.lastIndexOf('.');
+			return extension > filename.lastIndexOf('/') 
+					? String.format("%s.%s%s", filename.substring(0, extension), hash, filename.substring(extension)) 
+					: String.format("%s.%s", filename, hash);
+		} catch (IOException | NoSuchAlgorithmException ex) {
+			throw new ProcessingException(String.format("Exception while hashing file '%s': %s", filename, ex.getMessage()));
 		}
 	}
 	
@@ -58,25 +263,150 @@ public class ResourceHandler {
 			return null;
 		}
 		Properties properties = new Properties();
-		try {
-			properties.load(getClass().getClassLoader().getResourceAsStream(filename));
+		try (InputStream in = openResource(filename)) {
+			if (in == null) {
+				throw new FileNotFoundException(filename);
+			}
+			properties.load(in);
 			return properties;
 		} catch (IOException ex) {
 			throw new ProcessingException(String.format("IOException while loading properties '%s': %s", filename, ex.getMessage()));
 		}
 	}
 	
+	/**
+	 * Loads the properties for given locale like ResourceBundle does:
+	 * for 'de_AT' the properties of messages_de_AT.properties fall back to the ones of
+	 * messages_de.properties which fall back to messages.properties. Missing files are skipped.
+	 * @param locale like 'de' or 'de_AT', only the given file is loaded if null
+	 */
+	public Properties loadLocalizedProperties(String filename, String locale) throws ProcessingException {
+		Properties properties = loadProperties(filename);
+		if (filename == null || locale == null) {
+			return properties;
+		}
+		int extension = filename.lastIndexOf('.');
+		StringBuilder localizedName = new StringBuilder(extension < 0 ? filename : filename.substring(0, extension));
+		String suffix = extension < 0 ? "" : filename.substring(extension);
+		for (String segment : locale.replace('-', '_').split("_")) {
+			localizedName.append('_').append(segment);
+			String localizedFile = localizedName + suffix;
+			try (InputStream in = openResource(localizedFile)) {
+				if (in != null) {
+					properties = new Properties(properties);
+					properties.load(in);
+				}
+			} catch (IOException ex) {
+				throw new ProcessingException(String.format("IOException while loading properties '%s': %s", localizedFile, ex.getMessage()));
+			}
+		}
+		return properties;
+	}
+	
 	public Set<String> loadIgnoreFile(String filename) throws ProcessingException {
 		if (filename == null) {
 			return null;
 		}
-		try {
-			URI fileURI = getClass().getClassLoader().getResource(filename).toURI();
-			List<String> allLines = Files.readAllLines(Paths.get(fileURI), Charset.forName("UTF-8"));
-			return new HashSet<String>(allLines);			
-		} catch (IOException | URISyntaxException ex) {
+		try (InputStream in = openResource(filename)) {
+			if (in == null) {
+				throw new FileNotFoundException(filename);
+			}
+			Set<String> lines = new HashSet<>();
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, UTF_8));
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines.add(line);
+			}
+			return lines;
+		} catch (IOException ex) {
 			throw new ProcessingException(String.format("Exception while loading ignoreFile '%s': %s", filename, ex.getMessage()));
 		}
 	}
 	
+	/**
+	 * @return the resource of given name from the classpath, the file of given path if there is
+	 * no such resource or null if neither exists
+	 */
+	private InputStream openResource(String filename) throws IOException {
+		InputStream in = getClass().getClassLoader().getResourceAsStream(filename);
+		if (in == null && Files.isRegularFile(Paths.get(filename))) {
+			in = Files.newInputStream(Paths.get(filename));
+		}
+		return in;
+	}
+	
+	/**
+	 * Records the number of written bytes in the stats when closed
+	 */
+	private class CountingOutputStream extends FilterOutputStream {
+		
+		private String filename;
+		
+		private long bytes;
+
+		private CountingOutputStream(OutputStream out, String filename) {
+			super(out);
+			this.filename = filename;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			out.write(b);
+			bytes++;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			out.write(b, off, len);
+			bytes += len;
+		}
+
+		@Override
+		public void close() throws IOException {
+			super.close();
+			stats.addOutput(filename, bytes);
+		}
+	}
+	
+	/**
+	 * Writes to two streams at once
+	 */
+	private static class TeeOutputStream extends OutputStream {
+		
+		private OutputStream first;
+		
+		private OutputStream second;
+
+		private TeeOutputStream(OutputStream first, OutputStream second) {
+			this.first = first;
+			this.second = second;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			first.write(b);
+			second.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			first.write(b, off, len);
+			second.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			first.flush();
+			second.flush();
+		}
+
+		@Override
+		public void close() throws IOException {
+			try {
+				first.close();
+			} finally {
+				second.close();
+			}
+		}
+	}
+	
 }
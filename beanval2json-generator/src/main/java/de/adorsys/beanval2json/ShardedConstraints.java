@@ -0,0 +1,111 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Splits the constraints into one shard per class or per package.
+ * The shard of a property is determined by its full qualified name
+ * before the mapping is applied. Mapped keys which don't start with
+ * the name of their shard are recorded for the manifest.
+ * @author Florian Hirsch
+ */
+public class ShardedConstraints {
+
+	public static final String MODE_CLASS = "class";
+
+	public static final String MODE_PACKAGE = "package";
+
+	private static final String SHARD_DIRECTORY = "constraints/";
+
+	private static final String SHARD_EXTENSION = ".json";
+
+	/** the number of trailing segments of a fqn which are not part of the shard-name */
+	private final int segments;
+
+	private final Map<String, Map<String, Constraints>> shards = new TreeMap<>();
+
+	private final Map<String, String> mappedKeys = new TreeMap<>();
+
+	private ShardedConstraints(int segments) {
+		this.segments = segments;
+	}
+
+	/**
+	 * @param mode MODE_CLASS or MODE_PACKAGE
+	 */
+	public static ShardedConstraints forMode(String mode) throws ProcessingException {
+		if (MODE_CLASS.equals(mode)) {
+			return new ShardedConstraints(1);
+		}
+		if (MODE_PACKAGE.equals(mode)) {
+			return new ShardedConstraints(2);
+		}
+		throw new ProcessingException(String.format("Unknown shards '%s', expected '%s' or '%s'", mode, MODE_CLASS, MODE_PACKAGE));
+	}
+
+	/**
+	 * @param fqn the full qualified name of the property
+	 * @param key the key of the property after mapping
+	 */
+	public void add(String fqn, String key, Constraints constraints) {
+		String shard = shardOf(fqn);
+		Map<String, Constraints> shardConstraints = shards.get(shard);
+		if (shardConstraints == null) {
+			shardConstraints = new TreeMap<>();
+			shards.put(shard, shardConstraints);
+		}
+		shardConstraints.put(key, constraints);
+		if (!key.startsWith(shard + ".")) {
+			mappedKeys.put(key, shard);
+		}
+	}
+
+	/**
+	 * @return the constraints of each shard keyed by the name of the shard
+	 */
+	public Map<String, Map<String, Constraints>> getShards() {
+		return Collections.unmodifiableMap(shards);
+	}
+
+	/**
+	 * @return keys which can't be assigned to their shard by their prefix
+	 */
+	public Map<String, String> getMappedKeys() {
+		return Collections.unmodifiableMap(mappedKeys);
+	}
+
+	/**
+	 * @return the name of the file of given shard relative to the manifest
+	 */
+	public String getFilename(String shard) {
+		return SHARD_DIRECTORY + shard + SHARD_EXTENSION;
+	}
+
+	private String shardOf(String fqn) {
+		int end = fqn.length();
+		for (int i = 0; i < segments && end > 0; i++) {
+			end = fqn.lastIndexOf('.', end - 1);
+		}
+		return end > 0 ? fqn.substring(0, end) : "";
+	}
+
+}
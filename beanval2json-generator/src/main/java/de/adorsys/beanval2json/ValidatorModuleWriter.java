@@ -0,0 +1,234 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.google.gson.Gson;
+
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+import de.adorsys.beanval2json.constraint.DigitsConstraint;
+import de.adorsys.beanval2json.constraint.NumericConstraint;
+import de.adorsys.beanval2json.constraint.PatternConstraint;
+import de.adorsys.beanval2json.constraint.SizeConstraint;
+
+/**
+ * Writes the constraints as JavaScript-module with one validation-function per property like
+ *
+ * var beanval2jsonValidators = (function() {
+ *   validators["com.example.Person.name"] = function(value) {
+ *     var result = { messages : [] }, empty = isEmpty(value);
+ *     check(result, "pattern", empty || PATTERN_1.test(String(value)), MESSAGE_0);
+ *     return result;
+ *   };
+ *   ...
+ *   var MESSAGE_0 = "Please enter only letters";
+ *   var PATTERN_1 = new RegExp("^(?:[a-zA-Z]+)$");
+ *   ...
+ *   return validators;
+ * })();
+ *
+ * Each function returns the validity of each rule of the property and the messages of the violated ones,
+ * e.g. {"pattern": false, "messages": ["Please enter only letters"]}. Regular expressions, numeric bounds and messages
+ * are module-level constants, equal ones are declared once. Like the JSON the module is streamed property by property,
+ * the constants are declared at the end, as they are complete only after all functions are written.
+ * Empty values are valid for all rules but notNull. Lines end with '\n' on all platforms, so the hashed filenames are the same.
+ * @author Florian Hirsch
+ */
+public class ValidatorModuleWriter {
+
+	public static final String MODULE_NAME = "beanval2jsonValidators";
+
+	private static final String INDENT = "\t";
+
+	private final Gson gson = new Gson();
+
+	public void write(Map<String, Constraints> constraints, Writer writer) throws IOException {
+		Map<String, String> constants = new LinkedHashMap<>();
+		writer.write("/**\n * Validators generated by beanval2json. Each function returns the validity of each rule of the property\n"
+				+ " * and the messages of the violated rules like {\"notNull\": false, \"messages\": [\"may not be null\"]}.\n */\n");
+		writer.write(String.format("var %s = (function() {\n\n", MODULE_NAME));
+		writer.write(String.format("%1$s\"use strict\";\n\n%1$svar validators = {};\n\n", INDENT));
+		for (Map.Entry<String, Constraints> entry : constraints.entrySet()) {
+			writeValidator(entry.getKey(), entry.getValue(), constants, writer);
+		}
+		for (Map.Entry<String, String> constant : constants.entrySet()) {
+			writer.write(String.format("%svar %s = %s;\n", INDENT, constant.getValue(), constant.getKey()));
+		}
+		writer.write(String.format("\n%1$sfunction isEmpty(value) {\n"
+				+ "%1$s%1$sreturn value === null || value === undefined || value === '';\n"
+				+ "%1$s}\n\n"
+				+ "%1$sfunction check(result, rule, valid, message) {\n"
+				+ "%1$s%1$sresult[rule] = valid;\n"
+				+ "%1$s%1$sif (!valid && message) {\n"
+				+ "%1$s%1$s%1$sresult.messages.push(message);\n"
+				+ "%1$s%1$s}\n"
+				+ "%1$s}\n\n"
+				+ "%1$s/** the length of strings, arrays and the number of keys of objects */\n"
+				+ "%1$sfunction length(value) {\n"
+				+ "%1$s%1$sreturn typeof value === 'object' && !(value instanceof Array) ? Object.keys(value).length : value.length === undefined ? String(value).length : value.length;\n"
+				+ "%1$s}\n\n"
+				+ "%1$s/** compares the dates by day like the examples */\n"
+				+ "%1$sfunction compareDay(value) {\n"
+				+ "%1$s%1$sreturn new Date(value).setHours(0, 0, 0, 0) - new Date().setHours(0, 0, 0, 0);\n"
+				+ "%1$s}\n\n"
+				+ "%1$sreturn validators;\n\n"
+				+ "})();\n\n"
+				+ "if (typeof module !== 'undefined' && module.exports) {\n"
+				+ "%1$smodule.exports = %2$s;\n"
+				+ "}\n", INDENT, MODULE_NAME));
+	}
+
+	private void writeValidator(String key, Constraints constraints, Map<String, String> constants, Writer writer) throws IOException {
+		StringBuilder checks = new StringBuilder();
+		boolean numeric = false;
+		for (ConstraintSlot slot : ConstraintSlot.values()) {
+			Constraint constraint = slot.get(constraints);
+			if (constraint == null) {
+				continue;
+			}
+			numeric |= isNumeric(slot);
+			String message = constraint.getMessage() == null ? "null" : constant("MESSAGE", gson.toJson(constraint.getMessage()), constants);
+			checks.append(String.format("%1$s%1$scheck(result, \"%2$s\", %3$s, %4$s);\n", INDENT, ruleOf(slot), 
+					expression(slot, constraint, constants), message));
+		}
+		writer.write(String.format("%1$svalidators[%2$s] = function(value) {\n"
+				+ "%1$s%1$svar result = { messages : [] }, empty = isEmpty(value)%3$s;\n"
+				+ "%4$s"
+				+ "%1$s%1$sreturn result;\n"
+				+ "%1$s};\n\n", INDENT, gson.toJson(key), numeric ? ", number = Number(value)" : "", checks));
+	}
+
+	/**
+	 * @return the JavaScript-expression which is true if the value is valid
+	 */
+	private String expression(ConstraintSlot slot, Constraint constraint, Map<String, String> constants) {
+		switch (slot) {
+		case ASSERT_FALSE:
+			return "empty || value === false || value === 'false'";
+		case ASSERT_TRUE:
+			return "empty || value === true || value === 'true'";
+		case DECIMAL_MIN:
+			return String.format("empty || number %s %s", isInclusive(constraint) ? ">=" : ">", number(constraint, constants));
+		case DECIMAL_MAX:
+			return String.format("empty || number %s %s", isInclusive(constraint) ? "<=" : "<", number(constraint, constants));
+		case DIGITS:
+			return String.format("empty || %s.test(String(value))", constant("DIGITS", digitsRegExp((DigitsConstraint) constraint), constants));
+		case FUTURE:
+			return "empty || compareDay(value) > 0";
+		case MIN:
+			return String.format("empty || number >= %s", number(constraint, constants));
+		case MAX:
+			return String.format("empty || number <= %s", number(constraint, constants));
+		case NOT_NULL:
+			return "!empty";
+		case NULL:
+			return "empty";
+		case PAST:
+			return "empty || compareDay(value) < 0";
+		case PATTERN:
+			PatternConstraint pattern = (PatternConstraint) constraint;
+			if (pattern.getJsProblem() != null) {
+				// the RegExp would throw a SyntaxError when the module is loaded
+				return String.format("true /* untranslatable regexp: %s */", pattern.getJsProblem().replace("*/", "* /"));
+			}
+			return String.format("empty || %s.test(String(value))", constant("PATTERN", patternRegExp(pattern), constants));
+		case SIZE:
+			SizeConstraint size = (SizeConstraint) constraint;
+			StringBuilder result = new StringBuilder("empty");
+			if (size.getMin() > 0) {
+				result.append(" || length(value) >= ").append(size.getMin());
+			}
+			if (size.getMax() < Integer.MAX_VALUE) {
+				result.append(size.getMin() > 0 ? " && " : " || ").append("length(value) <= ").append(size.getMax());
+			}
+			return result.length() == "empty".length() ? "true" : result.toString();
+		default:
+			throw new IllegalArgumentException(String.format("Unsupported slot %s", slot));
+		}
+	}
+
+	/**
+	 * @return the name of the rule as used in the JSON
+	 */
+	private String ruleOf(ConstraintSlot slot) {
+		StringBuilder result = new StringBuilder();
+		for (String word : slot.name().toLowerCase().split("_")) {
+			result.append(result.length() == 0 ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1));
+		}
+		return result.toString();
+	}
+
+	private boolean isNumeric(ConstraintSlot slot) {
+		return slot == ConstraintSlot.MIN || slot == ConstraintSlot.MAX || slot == ConstraintSlot.DECIMAL_MIN || slot == ConstraintSlot.DECIMAL_MAX;
+	}
+
+	private boolean isInclusive(Constraint constraint) {
+		Boolean inclusive = ((NumericConstraint) constraint).getInclusive();
+		return inclusive == null || inclusive;
+	}
+
+	/**
+	 * @return the constant of the bound, values which are no valid numbers are parsed like by the examples
+	 */
+	private String number(Constraint constraint, Map<String, String> constants) {
+		String value = ((NumericConstraint) constraint).getValue();
+		String literal;
+		try {
+			literal = new BigDecimal(value.trim()).toString();
+		} catch (NumberFormatException ex) {
+			literal = String.format("parseFloat(%s)", gson.toJson(value));
+		}
+		return constant("NUMBER", literal, constants);
+	}
+
+	private String digitsRegExp(DigitsConstraint digits) {
+		String integer = digits.getInteger() > 0 ? String.format("\\d{1,%d}", digits.getInteger()) : "0?";
+		String fraction = digits.getFraction() > 0 ? String.format("(?:\\.\\d{1,%d})?", digits.getFraction()) : "";
+		return String.format("new RegExp(%s)", gson.toJson(String.format("^[-+]?%s%s$", integer, fraction)));
+	}
+
+	/**
+	 * @return the RegExp of the regexp translated to ECMAScript matching the whole value like Matcher.matches(),
+	 * with the flag 'm' ^ and $ would match at line-breaks as well
+	 */
+	private String patternRegExp(PatternConstraint pattern) {
+		String regexp = pattern.getJsRegexp() == null ? pattern.getRegexp() : pattern.getJsRegexp();
+		String flags = pattern.getJsFlags() == null ? "" : pattern.getJsFlags();
+		String format = flags.contains("m") ? "(?<![\\s\\S])(?:%s)(?![\\s\\S])" : "^(?:%s)$";
+		String source = gson.toJson(String.format(format, regexp));
+		return flags.isEmpty() ? String.format("new RegExp(%s)", source) : String.format("new RegExp(%s, \"%s\")", source, flags);
+	}
+
+	/**
+	 * @return the name of the constant with given value, which is declared if it is new
+	 */
+	private String constant(String prefix, String value, Map<String, String> constants) {
+		String name = constants.get(value);
+		if (name == null) {
+			name = String.format("%s_%d", prefix, constants.size());
+			constants.put(value, name);
+		}
+		return name;
+	}
+
+}
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.bytecode;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+
+/**
+ * The default values of the supported annotations as plain values.
+ * Class-files only contain the values which are set explicitly, the defaults
+ * are read from the javax.validation annotations by reflection.
+ * @author Florian Hirsch
+ */
+class AnnotationDefaults {
+
+	private final Map<ConstraintSlot, Map<String, Object>> defaults = new EnumMap<>(ConstraintSlot.class);
+
+	AnnotationDefaults() {
+		for (ConstraintSlot slot : ConstraintSlot.values()) {
+			Map<String, Object> values = new HashMap<>();
+			for (Method method : slot.getAnnotationType().getDeclaredMethods()) {
+				Object defaultValue = method.getDefaultValue();
+				if (defaultValue != null) {
+					values.put(method.getName(), toPlain(defaultValue));
+				}
+			}
+			defaults.put(slot, Collections.unmodifiableMap(values));
+		}
+	}
+
+	/**
+	 * @return the values of the annotation of given slot which were not set explicitly
+	 */
+	Map<String, Object> get(ConstraintSlot slot) {
+		return defaults.get(slot);
+	}
+
+	/**
+	 * @return the value as it would be read from a class-file
+	 */
+	private Object toPlain(Object value) {
+		if (value.getClass().isArray()) {
+			List<Object> result = new ArrayList<>();
+			for (int i = 0; i < Array.getLength(value); i++) {
+				result.add(toPlain(Array.get(value, i)));
+			}
+			return result;
+		}
+		if (value instanceof Class) {
+			return ((Class<?>) value).getName().replace('$', '.');
+		}
+		if (value instanceof Enum) {
+			return ((Enum<?>) value).name();
+		}
+		return value;
+	}
+
+}
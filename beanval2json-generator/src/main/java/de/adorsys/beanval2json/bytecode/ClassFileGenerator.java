@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.ConstraintMapping;
+import de.adorsys.beanval2json.ConstraintsWriter;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Command line interface to create the constraints.json from jars or directories
+ * containing class-files. The options are named like the options of the 
+ * BeanvalAnnotationProcessor but refer to files instead of classpath-resources:
+ * 
+ * java de.adorsys.beanval2json.bytecode.ClassFileGenerator [-mappingFile file] [-messagesFile file] [-ignoreFile file] 
+ *   [-format pretty|compact] [-encoding plain|dictionary] [-output constraints.json] jar-or-directory...
+ * @author Florian Hirsch
+ */
+public class ClassFileGenerator {
+
+	public static final String OPTION_OUTPUT = "output";
+
+	private static final String DEFAULT_OUTPUT = "constraints.json";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String USAGE = "Usage: ClassFileGenerator [-mappingFile file] [-messagesFile file] [-ignoreFile file] "
+			+ "[-format pretty|compact] [-encoding plain|dictionary] [-output file] jar-or-directory...";
+
+	public static void main(String[] args) {
+		try {
+			generate(args);
+		} catch (ProcessingException ex) {
+			System.err.println(ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * @param args the command line arguments
+	 */
+	public static void generate(String[] args) throws ProcessingException {
+		Map<String, String> options = new HashMap<>();
+		List<Path> paths = new ArrayList<>();
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].startsWith("-")) {
+				if (i + 1 == args.length) {
+					throw new ProcessingException(USAGE);
+				}
+				options.put(args[i].substring(1), args[++i]);
+			} else {
+				paths.add(Paths.get(args[i]));
+			}
+		}
+		if (paths.isEmpty()) {
+			throw new ProcessingException(USAGE);
+		}
+		ConstraintsWriter constraintsWriter = ConstraintsWriter.forOptions(options.get(BeanvalAnnotationProcessor.OPTION_FORMAT), 
+				options.get(BeanvalAnnotationProcessor.OPTION_ENCODING));
+		ClassFileScanner scanner = new ClassFileScanner(loadProperties(options.get(BeanvalAnnotationProcessor.OPTION_MESSAGES_FILE)),
+				loadIgnoreFile(options.get(BeanvalAnnotationProcessor.OPTION_IGNORE_FILE)));
+		Map<String, Constraints> constraints = ConstraintMapping.apply(loadProperties(options.get(BeanvalAnnotationProcessor.OPTION_MAPPING_FILE)),
+				scanner.scan(paths).getConstraints());
+		String output = options.containsKey(OPTION_OUTPUT) ? options.get(OPTION_OUTPUT) : DEFAULT_OUTPUT;
+		try (Writer writer = Files.newBufferedWriter(Paths.get(output), UTF_8)) {
+			constraintsWriter.write(constraints, writer);
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("IOException while writing file '%s': %s", output, ex.getMessage()));
+		}
+	}
+
+	private static Properties loadProperties(String filename) throws ProcessingException {
+		if (filename == null) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = Files.newInputStream(Paths.get(filename))) {
+			properties.load(in);
+			return properties;
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("IOException while loading properties '%s': %s", filename, ex.getMessage()));
+		}
+	}
+
+	private static Set<String> loadIgnoreFile(String filename) throws ProcessingException {
+		if (filename == null) {
+			return null;
+		}
+		try {
+			return new HashSet<String>(Files.readAllLines(Paths.get(filename), UTF_8));
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("Exception while loading ignoreFile '%s': %s", filename, ex.getMessage()));
+		}
+	}
+
+}
@@ -0,0 +1,187 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.bytecode;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.objectweb.asm.ClassReader;
+
+import de.adorsys.beanval2json.ConstraintIndex;
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.IgnoreRules;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
+
+/**
+ * Reads the constraints of already compiled classes from jars or directories
+ * without loading the classes. Creates the same constraints as the
+ * BeanvalAnnotationProcessor, except for constraints of parameters
+ * as their names are usually not contained in class-files.
+ * Multiple jars or directories are scanned in parallel.
+ * @author Florian Hirsch
+ */
+public class ClassFileScanner {
+
+	private static final String CLASS_EXTENSION = ".class";
+
+	private static final String META_INF = "META-INF/";
+
+	private static final int PARSING_OPTIONS = ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES;
+
+	private final Properties messages;
+
+	private final Set<String> ignoredProperties;
+
+	private final AnnotationDefaults defaults = new AnnotationDefaults();
+
+	/**
+	 * @param messages the messages to resolve message-keys with, may be null
+	 * @param ignoredProperties the lines of an ignoreFile, may be null
+	 */
+	public ClassFileScanner(Properties messages, Set<String> ignoredProperties) throws ProcessingException {
+		this.messages = messages;
+		this.ignoredProperties = ignoredProperties;
+		// fail early on invalid rules, each scan compiles its own as IgnoreRules are not thread-safe
+		createContext();
+	}
+
+	/**
+	 * @param paths jars or directories containing class-files
+	 * @return the constraints of all classes, classes in later paths replace classes with the same name in earlier paths
+	 */
+	public ConstraintIndex scan(List<Path> paths) throws ProcessingException {
+		List<Callable<ConstraintIndex>> tasks = new ArrayList<>();
+		for (final Path path : paths) {
+			tasks.add(new Callable<ConstraintIndex>() {
+				@Override
+				public ConstraintIndex call() throws ProcessingException {
+					return scan(path);
+				}
+			});
+		}
+		ForkJoinPool pool = new ForkJoinPool();
+		try {
+			ConstraintIndex result = new ConstraintIndex();
+			for (Future<ConstraintIndex> future : pool.invokeAll(tasks)) {
+				result.putAll(future.get());
+			}
+			return result;
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new ProcessingException("Interrupted while scanning class-files");
+		} catch (ExecutionException ex) {
+			throw ex.getCause() instanceof ProcessingException 
+					? (ProcessingException) ex.getCause() 
+					: new ProcessingException(String.format("Exception while scanning class-files: %s", ex.getCause()));
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * @param path a jar or a directory containing class-files
+	 */
+	public ConstraintIndex scan(Path path) throws ProcessingException {
+		ConverterContext ctx = createContext();
+		ConstraintIndex index = new ConstraintIndex();
+		ConstraintClassVisitorFactory visitors = new ConstraintClassVisitorFactory(ctx, index);
+		try {
+			if (Files.isDirectory(path)) {
+				scanDirectory(path, visitors);
+			} else {
+				scanJar(path, visitors);
+			}
+		} catch (IOException ex) {
+			throw new ProcessingException(String.format("IOException while scanning '%s': %s", path, ex.getMessage()));
+		}
+		return index;
+	}
+
+	private void scanDirectory(Path directory, final ConstraintClassVisitorFactory visitors) throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				if (file.getFileName().toString().endsWith(CLASS_EXTENSION)) {
+					try (InputStream in = Files.newInputStream(file)) {
+						scanClass(in, visitors);
+					}
+				}
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private void scanJar(Path jar, ConstraintClassVisitorFactory visitors) throws IOException {
+		try (ZipFile zipFile = new ZipFile(jar.toFile())) {
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				if (entry.getName().endsWith(CLASS_EXTENSION) && !entry.getName().startsWith(META_INF)) {
+					try (InputStream in = zipFile.getInputStream(entry)) {
+						scanClass(in, visitors);
+					}
+				}
+			}
+		}
+	}
+
+	private void scanClass(InputStream in, ConstraintClassVisitorFactory visitors) throws IOException {
+		new ClassReader(in).accept(visitors.create(), PARSING_OPTIONS);
+	}
+
+	private ConverterContext createContext() throws ProcessingException {
+		IgnoreRules ignoreRules = ignoredProperties == null ? null : IgnoreRules.compile(ignoredProperties);
+		return new ConverterContext(null, null, messages, ignoreRules);
+	}
+
+	/**
+	 * Creates a visitor per class sharing the converters of one scan
+	 */
+	private class ConstraintClassVisitorFactory {
+
+		private final ConverterContext ctx;
+
+		private final ConverterRegistry converters;
+
+		private final ConstraintIndex index;
+
+		private ConstraintClassVisitorFactory(ConverterContext ctx, ConstraintIndex index) throws ProcessingException {
+			this.ctx = ctx;
+			this.converters = ConverterRegistry.withDefaultConverters(ctx);
+			this.index = index;
+		}
+
+		private ConstraintClassVisitor create() {
+			return new ConstraintClassVisitor(ctx, converters, defaults, index);
+		}
+	}
+
+}
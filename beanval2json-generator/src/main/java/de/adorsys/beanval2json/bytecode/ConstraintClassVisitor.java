@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.bytecode;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.FieldVisitor;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import de.adorsys.beanval2json.ConstraintIndex;
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.converter.AnnotationValues;
+import de.adorsys.beanval2json.converter.ConverterRegistry;
+
+/**
+ * Reads the constraint-annotations of the fields and methods of one class-file
+ * and adds the converted constraints to the index. The properties are named
+ * like the BeanvalAnnotationProcessor names them: package.SimpleName.member
+ * @author Florian Hirsch
+ */
+class ConstraintClassVisitor extends ClassVisitor {
+
+	private static final int API = Opcodes.ASM9;
+
+	private static final int IGNORED_ACCESS = Opcodes.ACC_SYNTHETIC | Opcodes.ACC_BRIDGE;
+
+	private final ConverterContext ctx;
+
+	private final ConverterRegistry converters;
+
+	private final AnnotationDefaults defaults;
+
+	private final ConstraintIndex index;
+
+	private String internalName;
+
+	/** the simple name of a nested class as declared in the source, null for top-level classes */
+	private String innerName;
+
+	private final List<AnnotatedMember> members = new ArrayList<>();
+
+	ConstraintClassVisitor(ConverterContext ctx, ConverterRegistry converters, AnnotationDefaults defaults, ConstraintIndex index) {
+		super(API);
+		this.ctx = ctx;
+		this.converters = converters;
+		this.defaults = defaults;
+		this.index = index;
+	}
+
+	@Override
+	public void visit(int version, int access, String name, String signature, String superName, String[] interfaces) {
+		this.internalName = name;
+	}
+
+	@Override
+	public void visitInnerClass(String name, String outerName, String innerName, int access) {
+		if (name.equals(internalName)) {
+			this.innerName = innerName;
+		}
+	}
+
+	@Override
+	public FieldVisitor visitField(int access, final String name, String descriptor, String signature, Object value) {
+		if ((access & IGNORED_ACCESS) != 0) {
+			return null;
+		}
+		return new FieldVisitor(API) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				return visitMemberAnnotation(name, descriptor);
+			}
+		};
+	}
+
+	@Override
+	public MethodVisitor visitMethod(int access, final String name, String descriptor, String signature, String[] exceptions) {
+		if ((access & IGNORED_ACCESS) != 0) {
+			return null;
+		}
+		return new MethodVisitor(API) {
+			@Override
+			public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+				return visitMemberAnnotation(name, descriptor);
+			}
+		};
+	}
+
+	private AnnotationVisitor visitMemberAnnotation(String member, String descriptor) {
+		ConstraintSlot slot = converters.slotFor(Type.getType(descriptor).getClassName());
+		if (slot == null) {
+			return null;
+		}
+		AnnotatedMember annotatedMember = new AnnotatedMember(member, slot);
+		members.add(annotatedMember);
+		return new ValuesVisitor(annotatedMember.values);
+	}
+
+	@Override
+	public void visitEnd() {
+		if (members.isEmpty()) {
+			return;
+		}
+		int packageEnd = internalName.lastIndexOf('/');
+		String packageName = packageEnd < 0 ? "" : internalName.substring(0, packageEnd).replace('/', '.');
+		String simpleName = innerName != null ? innerName : internalName.substring(packageEnd + 1);
+		String type = innerName != null ? internalName.replace('/', '.').replace('$', '.') : internalName.replace('/', '.');
+		String enclosingName = String.format("%s.%s", packageName, simpleName);
+		for (AnnotatedMember member : members) {
+			String name = String.format("%s.%s", enclosingName, member.name);
+			if (ctx.ignoreProperty(enclosingName, name)) {
+				continue;
+			}
+			Map<String, Object> values = new HashMap<>(defaults.get(member.slot));
+			values.putAll(member.values);
+			converters.converterFor(member.slot).addConstraint(member.slot, AnnotationValues.of(values), index.getConstraints(type, name));
+		}
+	}
+
+	/**
+	 * @return the value as the compiler would return it as string
+	 */
+	private static Object toPlain(Object value) {
+		if (value instanceof Type) {
+			return ((Type) value).getClassName().replace('$', '.');
+		}
+		if (value.getClass().isArray()) {
+			List<Object> result = new ArrayList<>();
+			for (int i = 0; i < Array.getLength(value); i++) {
+				result.add(Array.get(value, i));
+			}
+			return result;
+		}
+		return value;
+	}
+
+	/**
+	 * One constraint-annotation of a field or method
+	 */
+	private static class AnnotatedMember {
+
+		private final String name;
+
+		private final ConstraintSlot slot;
+
+		private final Map<String, Object> values = new HashMap<>();
+
+		private AnnotatedMember(String name, ConstraintSlot slot) {
+			this.name = name;
+			this.slot = slot;
+		}
+	}
+
+	/**
+	 * Collects the explicitly set values of an annotation
+	 */
+	private static class ValuesVisitor extends AnnotationVisitor {
+
+		private final Map<String, Object> values;
+
+		private ValuesVisitor(Map<String, Object> values) {
+			super(API);
+			this.values = values;
+		}
+
+		@Override
+		public void visit(String name, Object value) {
+			values.put(name, toPlain(value));
+		}
+
+		@Override
+		public void visitEnum(String name, String descriptor, String value) {
+			values.put(name, value);
+		}
+
+		@Override
+		public AnnotationVisitor visitArray(final String name) {
+			final List<Object> array = new ArrayList<>();
+			values.put(name, array);
+			return new AnnotationVisitor(API) {
+				@Override
+				public void visit(String unused, Object value) {
+					array.add(toPlain(value));
+				}
+
+				@Override
+				public void visitEnum(String unused, String descriptor, String value) {
+					array.add(value);
+				}
+			};
+		}
+	}
+
+}
@@ -16,10 +16,11 @@
 package de.adorsys.beanval2json.constraint;
 
 import java.io.Serializable;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -33,9 +34,15 @@ public class Constraint implements Serializable {
 
 	private String message;
 	
+	/** the message as declared in the annotation, not part of the JSON */
+	private transient String messageTemplate;
+	
 	private List<String> groups;
 	
 	private List<String> payload;
+	
+	/** the cached hashCode, 0 if not computed yet */
+	private transient int hash;
 
 	public String getMessage() {
 		return message;
@@ -43,6 +50,15 @@ public class Constraint implements Serializable {
 
 	public void setMessage(String message) {
 		this.message = message;
+		resetHashCode();
+	}
+
+	public String getMessageTemplate() {
+		return messageTemplate;
+	}
+
+	public void setMessageTemplate(String messageTemplate) {
+		this.messageTemplate = messageTemplate;
 	}
 
 	public List<String> getGroups() {
@@ -51,6 +67,7 @@ public class Constraint implements Serializable {
 
 	public void setGroups(List<String> groups) {
 		this.groups = groups;
+		resetHashCode();
 	}
 
 	public List<String> getPayload() {
@@ -59,20 +76,67 @@ public class Constraint implements Serializable {
 
 	public void setPayload(List<String> payload) {
 		this.payload = payload;
+		resetHashCode();
+	}
+	
+	/**
+	 * @return the attributes which can be used as parameters in the message
+	 * like {min} keyed by their names. To be extended by subclasses.
+	 */
+	public Map<String, Object> getMessageAttributes() {
+		return new HashMap<>();
 	}
 	
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		int result = hash;
+		if (result == 0) {
+			result = computeHashCode();
+			hash = result;
+		}
+		return result;
+	}
+
+	/**
+	 * @return the hashCode of the fields, to be extended by subclasses
+	 */
+	protected int computeHashCode() {
+		return Objects.hash(message, groups, payload);
+	}
+
+	/**
+	 * to be called by the setters, as the hashCode is cached
+	 */
+	protected void resetHashCode() {
+		hash = 0;
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		Constraint other = (Constraint) obj;
+		return Objects.equals(message, other.message)
+				&& Objects.equals(groups, other.groups)
+				&& Objects.equals(payload, other.payload);
 	}
 
 	@Override
 	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+		return toStringBuilder().toString();
+	}
+
+	/**
+	 * @return a builder with all fields appended, to be extended by subclasses
+	 */
+	protected ToStringBuilder toStringBuilder() {
+		return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+				.append("message", message)
+				.append("groups", groups)
+				.append("payload", payload);
 	}
 }
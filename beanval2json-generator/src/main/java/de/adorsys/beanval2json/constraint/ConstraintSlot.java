@@ -0,0 +1,227 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.constraint;
+
+import java.lang.annotation.Annotation;
+
+import javax.validation.constraints.AssertFalse;
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Digits;
+import javax.validation.constraints.Future;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Null;
+import javax.validation.constraints.Past;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+/**
+ * The properties of Constraints, one for each supported javax.validation.constraints annotation
+ * @author Florian Hirsch
+ */
+public enum ConstraintSlot {
+
+	ASSERT_FALSE(AssertFalse.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setAssertFalse(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getAssertFalse();
+		}
+	},
+	ASSERT_TRUE(AssertTrue.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setAssertTrue(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getAssertTrue();
+		}
+	},
+	DECIMAL_MIN(DecimalMin.class, NumericConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setDecimalMin((NumericConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getDecimalMin();
+		}
+	},
+	DECIMAL_MAX(DecimalMax.class, NumericConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setDecimalMax((NumericConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getDecimalMax();
+		}
+	},
+	DIGITS(Digits.class, DigitsConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setDigits((DigitsConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getDigits();
+		}
+	},
+	FUTURE(Future.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setFuture(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getFuture();
+		}
+	},
+	MIN(Min.class, NumericConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setMin((NumericConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getMin();
+		}
+	},
+	MAX(Max.class, NumericConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setMax((NumericConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getMax();
+		}
+	},
+	NOT_NULL(NotNull.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setNotNull(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getNotNull();
+		}
+	},
+	NULL(Null.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setNull(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getNull();
+		}
+	},
+	PAST(Past.class, Constraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setPast(constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getPast();
+		}
+	},
+	PATTERN(Pattern.class, PatternConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setPattern((PatternConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getPattern();
+		}
+	},
+	SIZE(Size.class, SizeConstraint.class) {
+		@Override
+		protected void doSet(Constraints constraints, Constraint constraint) {
+			constraints.setSize((SizeConstraint) constraint);
+		}
+
+		@Override
+		public Constraint get(Constraints constraints) {
+			return constraints.getSize();
+		}
+	};
+
+	private final Class<? extends Annotation> annotationType;
+
+	private final Class<? extends Constraint> constraintType;
+
+	private ConstraintSlot(Class<? extends Annotation> annotationType, Class<? extends Constraint> constraintType) {
+		this.annotationType = annotationType;
+		this.constraintType = constraintType;
+	}
+
+	public Class<? extends Annotation> getAnnotationType() {
+		return annotationType;
+	}
+
+	public Class<? extends Constraint> getConstraintType() {
+		return constraintType;
+	}
+
+	/**
+	 * sets the given constraint at this slot of constraints
+	 */
+	public void set(Constraints constraints, Constraint constraint) {
+		doSet(constraints, constraintType.cast(constraint));
+	}
+
+	protected abstract void doSet(Constraints constraints, Constraint constraint);
+
+	/**
+	 * @return the constraint at this slot of constraints or null
+	 */
+	public abstract Constraint get(Constraints constraints);
+
+	/**
+	 * @return the slot for given annotation or null if the annotation is not supported
+	 */
+	public static ConstraintSlot forAnnotation(Class<? extends Annotation> annotationType) {
+		for (ConstraintSlot slot : values()) {
+			if (slot.annotationType.equals(annotationType)) {
+				return slot;
+			}
+		}
+		return null;
+	}
+
+}
@@ -16,9 +16,8 @@
 package de.adorsys.beanval2json.constraint;
 
 import java.io.Serializable;
+import java.util.Objects;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.apache.commons.lang3.builder.ToStringStyle;
 
@@ -165,17 +164,51 @@ public class Constraints implements Serializable {
 
 	@Override
 	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+		return Objects.hash(assertFalse, assertTrue, decimalMin, decimalMax, digits, future, min,
+				max, notNull, nullConstraint, past, pattern, size);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (this == obj) {
+			return true;
+		}
+		if (obj == null || obj.getClass() != getClass()) {
+			return false;
+		}
+		Constraints other = (Constraints) obj;
+		return Objects.equals(assertFalse, other.assertFalse)
+				&& Objects.equals(assertTrue, other.assertTrue)
+				&& Objects.equals(decimalMin, other.decimalMin)
+				&& Objects.equals(decimalMax, other.decimalMax)
+				&& Objects.equals(digits, other.digits)
+				&& Objects.equals(future, other.future)
+				&& Objects.equals(min, other.min)
+				&& Objects.equals(max, other.max)
+				&& Objects.equals(notNull, other.notNull)
+				&& Objects.equals(nullConstraint, other.nullConstraint)
+				&& Objects.equals(past, other.past)
+				&& Objects.equals(pattern, other.pattern)
+				&& Objects.equals(size, other.size);
 	}
 
 	@Override
 	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+		return new ToStringBuilder(this, ToStringStyle.MULTI_LINE_STYLE)
+				.append("assertFalse", assertFalse)
+				.append("assertTrue", assertTrue)
+				.append("decimalMin", decimalMin)
+				.append("decimalMax", decimalMax)
+				.append("digits", digits)
+				.append("future", future)
+				.append("min", min)
+				.append("max", max)
+				.append("notNull", notNull)
+				.append("nullConstraint", nullConstraint)
+				.append("past", past)
+				.append("pattern", pattern)
+				.append("size", size)
+				.toString();
 	}
 	
 }
@@ -15,10 +15,10 @@
  */
 package de.adorsys.beanval2json.constraint;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Map;
+import java.util.Objects;
+
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Representation for javax.validation.constraints.Digits
@@ -38,6 +38,7 @@ public class DigitsConstraint extends Constraint {
 
 	public void setInteger(int integer) {
 		this.integer = integer;
+		resetHashCode();
 	}
 
 	public int getFraction() {
@@ -46,21 +47,37 @@ public class DigitsConstraint extends Constraint {
 
 	public void setFraction(int fraction) {
 		this.fraction = fraction;
+		resetHashCode();
+	}
+
+	@Override
+	public Map<String, Object> getMessageAttributes() {
+		Map<String, Object> attributes = super.getMessageAttributes();
+		attributes.put("integer", integer);
+		attributes.put("fraction", fraction);
+		return attributes;
 	}
 
 	@Override
-	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+	protected int computeHashCode() {
+		return 31 * super.computeHashCode() + Objects.hash(integer, fraction);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!super.equals(obj)) {
+			return false;
+		}
+		DigitsConstraint other = (DigitsConstraint) obj;
+		return integer == other.integer
+				&& fraction == other.fraction;
 	}
 
 	@Override
-	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+	protected ToStringBuilder toStringBuilder() {
+		return super.toStringBuilder()
+				.append("integer", integer)
+				.append("fraction", fraction);
 	}
 	
 }
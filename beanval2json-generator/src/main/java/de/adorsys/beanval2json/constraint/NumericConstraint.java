@@ -15,10 +15,10 @@
  */
 package de.adorsys.beanval2json.constraint;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Map;
+import java.util.Objects;
+
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Representation for Numeric-Constraints
@@ -38,6 +38,7 @@ public class NumericConstraint extends Constraint {
 
 	public void setValue(String value) {
 		this.value = value;
+		resetHashCode();
 	}
 
 	public Boolean getInclusive() {
@@ -46,21 +47,37 @@ public class NumericConstraint extends Constraint {
 
 	public void setInclusive(Boolean inclusive) {
 		this.inclusive = inclusive;
+		resetHashCode();
+	}
+
+	@Override
+	public Map<String, Object> getMessageAttributes() {
+		Map<String, Object> attributes = super.getMessageAttributes();
+		attributes.put("value", value);
+		attributes.put("inclusive", inclusive);
+		return attributes;
 	}
 
 	@Override
-	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+	protected int computeHashCode() {
+		return 31 * super.computeHashCode() + Objects.hash(value, inclusive);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!super.equals(obj)) {
+			return false;
+		}
+		NumericConstraint other = (NumericConstraint) obj;
+		return Objects.equals(value, other.value)
+				&& Objects.equals(inclusive, other.inclusive);
 	}
 
 	@Override
-	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+	protected ToStringBuilder toStringBuilder() {
+		return super.toStringBuilder()
+				.append("value", value)
+				.append("inclusive", inclusive);
 	}
 	
 }
@@ -16,11 +16,10 @@
 package de.adorsys.beanval2json.constraint;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Representation for javax.validation.constraints.Pattern
@@ -34,12 +33,22 @@ public class PatternConstraint extends Constraint {
 	
 	private List<String> flags;
 	
+	/** the regexp translated to ECMAScript, null if it is the same or can't be translated */
+	private String jsRegexp;
+	
+	/** the flags translated to ECMAScript like "im", null if there are none */
+	private String jsFlags;
+	
+	/** why the regexp can't be translated to ECMAScript, not part of the JSON */
+	private transient String jsProblem;
+	
 	public String getRegexp() {
 		return regexp;
 	}
 
 	public void setRegexp(String regexp) {
 		this.regexp = regexp;
+		resetHashCode();
 	}
 
 	public List<String> getFlags() {
@@ -48,21 +57,69 @@ public class PatternConstraint extends Constraint {
 
 	public void setFlags(List<String> flags) {
 		this.flags = flags;
+		resetHashCode();
+	}
+
+	public String getJsRegexp() {
+		return jsRegexp;
+	}
+
+	public void setJsRegexp(String jsRegexp) {
+		this.jsRegexp = jsRegexp;
+		resetHashCode();
+	}
+
+	public String getJsFlags() {
+		return jsFlags;
+	}
+
+	public void setJsFlags(String jsFlags) {
+		this.jsFlags = jsFlags;
+		resetHashCode();
+	}
+
+	public String getJsProblem() {
+		return jsProblem;
+	}
+
+	/**
+	 * Not part of equals() as it is given by the regexp and flags.
+	 */
+	public void setJsProblem(String jsProblem) {
+		this.jsProblem = jsProblem;
+	}
+
+	@Override
+	public Map<String, Object> getMessageAttributes() {
+		Map<String, Object> attributes = super.getMessageAttributes();
+		attributes.put("regexp", regexp);
+		return attributes;
 	}
 
 	@Override
-	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+	protected int computeHashCode() {
+		return 31 * super.computeHashCode() + Objects.hash(regexp, flags, jsRegexp, jsFlags);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!super.equals(obj)) {
+			return false;
+		}
+		PatternConstraint other = (PatternConstraint) obj;
+		return Objects.equals(regexp, other.regexp)
+				&& Objects.equals(flags, other.flags)
+				&& Objects.equals(jsRegexp, other.jsRegexp)
+				&& Objects.equals(jsFlags, other.jsFlags);
 	}
 
 	@Override
-	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+	protected ToStringBuilder toStringBuilder() {
+		return super.toStringBuilder()
+				.append("regexp", regexp)
+				.append("flags", flags)
+				.append("jsRegexp", jsRegexp)
+				.append("jsFlags", jsFlags);
 	}
 	
 }
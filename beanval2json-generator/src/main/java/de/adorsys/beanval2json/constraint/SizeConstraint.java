@@ -15,10 +15,10 @@
  */
 package de.adorsys.beanval2json.constraint;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
+import java.util.Map;
+import java.util.Objects;
+
 import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 
 /**
  * Representation for javax.validation.constraints.Size
@@ -38,6 +38,7 @@ public class SizeConstraint extends Constraint {
 
 	public void setMin(int min) {
 		this.min = min;
+		resetHashCode();
 	}
 
 	public int getMax() {
@@ -46,21 +47,37 @@ public class SizeConstraint extends Constraint {
 
 	public void setMax(int max) {
 		this.max = max;
+		resetHashCode();
+	}
+
+	@Override
+	public Map<String, Object> getMessageAttributes() {
+		Map<String, Object> attributes = super.getMessageAttributes();
+		attributes.put("min", min);
+		attributes.put("max", max);
+		return attributes;
 	}
 
 	@Override
-	public int hashCode() {
-		return HashCodeBuilder.reflectionHashCode(this);
+	protected int computeHashCode() {
+		return 31 * super.computeHashCode() + Objects.hash(min, max);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
-		return EqualsBuilder.reflectionEquals(this, obj);
+		if (!super.equals(obj)) {
+			return false;
+		}
+		SizeConstraint other = (SizeConstraint) obj;
+		return min == other.min
+				&& max == other.max;
 	}
 
 	@Override
-	public String toString() {
-		return ToStringBuilder.reflectionToString(this, ToStringStyle.MULTI_LINE_STYLE);
+	protected ToStringBuilder toStringBuilder() {
+		return super.toStringBuilder()
+				.append("min", min)
+				.append("max", max);
 	}
 	
 }
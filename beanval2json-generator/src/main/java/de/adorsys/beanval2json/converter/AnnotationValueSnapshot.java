@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.AnnotationValueVisitor;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.SimpleAnnotationValueVisitor7;
+
+/**
+ * Immutable copy of an AnnotationValue which doesn't refer to the compiler anymore
+ * and can therefore be read from any thread.
+ * Class-literals, enum-constants and annotations are copied by their string-representation
+ * and visited as strings.
+ * @author Florian Hirsch
+ */
+class AnnotationValueSnapshot implements AnnotationValue {
+
+	/** a String, a boxed primitive or a List of AnnotationValueSnapshots */
+	private final Object value;
+
+	private AnnotationValueSnapshot(Object value) {
+		this.value = value;
+	}
+
+	static AnnotationValueSnapshot of(AnnotationValue annotationValue) {
+		return annotationValue == null ? null : annotationValue.accept(SNAPSHOT_VISITOR, null);
+	}
+
+	/**
+	 * @param value a String, a boxed primitive or a List of them
+	 */
+	static AnnotationValueSnapshot ofPlain(Object value) {
+		if (value instanceof List) {
+			List<AnnotationValueSnapshot> result = new ArrayList<>();
+			for (Object element : (List<?>) value) {
+				result.add(ofPlain(element));
+			}
+			return new AnnotationValueSnapshot(Collections.unmodifiableList(result));
+		}
+		return new AnnotationValueSnapshot(value);
+	}
+
+	@Override
+	public Object getValue() {
+		return value;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <R, P> R accept(AnnotationValueVisitor<R, P> v, P p) {
+		if (value instanceof List) {
+			return v.visitArray((List<AnnotationValueSnapshot>) value, p);
+		}
+		if (value instanceof String) {
+			return v.visitString((String) value, p);
+		}
+		if (value instanceof Boolean) {
+			return v.visitBoolean((Boolean) value, p);
+		}
+		if (value instanceof Integer) {
+			return v.visitInt((Integer) value, p);
+		}
+		if (value instanceof Long) {
+			return v.visitLong((Long) value, p);
+		}
+		if (value instanceof Double) {
+			return v.visitDouble((Double) value, p);
+		}
+		if (value instanceof Float) {
+			return v.visitFloat((Float) value, p);
+		}
+		if (value instanceof Short) {
+			return v.visitShort((Short) value, p);
+		}
+		if (value instanceof Byte) {
+			return v.visitByte((Byte) value, p);
+		}
+		return v.visitChar((Character) value, p);
+	}
+
+	@Override
+	public String toString() {
+		return value.toString();
+	}
+
+	private static final AnnotationValueVisitor<AnnotationValueSnapshot, Void> SNAPSHOT_VISITOR = new SimpleAnnotationValueVisitor7<AnnotationValueSnapshot, Void>() {
+		@Override
+		protected AnnotationValueSnapshot defaultAction(Object value, Void p) {
+			return new AnnotationValueSnapshot(value);
+		}
+
+		@Override
+		public AnnotationValueSnapshot visitType(TypeMirror type, Void p) {
+			return new AnnotationValueSnapshot(type.toString());
+		}
+
+		@Override
+		public AnnotationValueSnapshot visitEnumConstant(VariableElement constant, Void p) {
+			return new AnnotationValueSnapshot(constant.toString());
+		}
+
+		@Override
+		public AnnotationValueSnapshot visitAnnotation(AnnotationMirror annotation, Void p) {
+			return new AnnotationValueSnapshot(annotation.toString());
+		}
+
+		@Override
+		public AnnotationValueSnapshot visitArray(List<? extends AnnotationValue> values, Void p) {
+			List<AnnotationValueSnapshot> result = new ArrayList<>(values.size());
+			for (AnnotationValue value : values) {
+				result.add(value.accept(this, null));
+			}
+			return new AnnotationValueSnapshot(Collections.unmodifiableList(result));
+		}
+	};
+
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.ExecutableElement;
+
+/**
+ * The values of one AnnotationMirror including defaults.
+ * The values are resolved by the ExecutableElements of the
+ * annotation-type which are looked up only once per type.
+ * @author Florian Hirsch
+ */
+public class AnnotationValues {
+
+	private final Map<? extends ExecutableElement, ? extends AnnotationValue> values;
+
+	private final Map<String, ExecutableElement> attributes;
+
+	/**
+	 * @param values the result of Elements.getElementValuesWithDefaults
+	 * @param attributes the methods of the annotation-type keyed by their names
+	 */
+	public AnnotationValues(Map<? extends ExecutableElement, ? extends AnnotationValue> values, Map<String, ExecutableElement> attributes) {
+		this.values = values;
+		this.attributes = attributes;
+	}
+
+	/**
+	 * @return the value of given attribute or null if the annotation has no such attribute
+	 */
+	public AnnotationValue get(String attribute) {
+		ExecutableElement method = attributes.get(attribute);
+		return method == null ? null : values.get(method);
+	}
+
+	/**
+	 * @return a copy of these values which doesn't refer to the compiler
+	 * and can be read from any thread
+	 */
+	public AnnotationValues snapshot() {
+		Map<String, AnnotationValue> snapshot = new HashMap<>();
+		for (Map.Entry<String, ExecutableElement> attribute : attributes.entrySet()) {
+			snapshot.put(attribute.getKey(), AnnotationValueSnapshot.of(values.get(attribute.getValue())));
+		}
+		return new Snapshot(snapshot);
+	}
+
+	/**
+	 * Creates values which were not read by the compiler, e.g. from class-files.
+	 * @param plainValues Strings, boxed primitives or Lists of them keyed by the attribute-name.
+	 * Class-literals and enum-constants have to be given by their names.
+	 */
+	public static AnnotationValues of(Map<String, ?> plainValues) {
+		Map<String, AnnotationValue> snapshot = new HashMap<>();
+		for (Map.Entry<String, ?> entry : plainValues.entrySet()) {
+			snapshot.put(entry.getKey(), AnnotationValueSnapshot.ofPlain(entry.getValue()));
+		}
+		return new Snapshot(snapshot);
+	}
+
+	/**
+	 * Values keyed by the attribute-name which don't refer to the compiler
+	 */
+	private static class Snapshot extends AnnotationValues {
+
+		private final Map<String, AnnotationValue> snapshot;
+
+		private Snapshot(Map<String, AnnotationValue> snapshot) {
+			super(Collections.<ExecutableElement, AnnotationValue> emptyMap(), Collections.<String, ExecutableElement> emptyMap());
+			this.snapshot = snapshot;
+		}
+
+		@Override
+		public AnnotationValue get(String attribute) {
+			return snapshot.get(attribute);
+		}
+
+		@Override
+		public AnnotationValues snapshot() {
+			return this;
+		}
+	}
+
+}
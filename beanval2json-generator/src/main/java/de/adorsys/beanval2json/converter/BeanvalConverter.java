@@ -16,20 +16,20 @@
 package de.adorsys.beanval2json.converter;
 
 import java.lang.annotation.Annotation;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Properties;
 
-import javax.annotation.processing.RoundEnvironment;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
 import javax.lang.model.element.AnnotationValueVisitor;
-import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Name;
 import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.ElementFilter;
 import javax.lang.model.util.SimpleAnnotationValueVisitor7;
 import javax.validation.constraints.AssertFalse;
 import javax.validation.constraints.AssertTrue;
@@ -38,11 +38,9 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Null;
 import javax.validation.constraints.Past;
 
-import org.apache.commons.lang3.StringUtils;
-
 import de.adorsys.beanval2json.ConverterContext;
-import de.adorsys.beanval2json.ProcessingException;
 import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
 import de.adorsys.beanval2json.constraint.Constraints;
 
 /**
@@ -65,14 +63,14 @@ public class BeanvalConverter {
 	
 	private static final String METHOD_GROUPS = "groups";
 
-	private static final String IDENTIFIER_MSG_KEY_START = "{";
-	
-	private static final String IDENTIFIER_MSG_KEY_END = "}";
-	
-	private static final String IDENTIFIER_SETTER = "set";
+	private static final List<Class<? extends Annotation>> ACCEPTED_TYPES = Collections.unmodifiableList(Arrays.<Class<? extends Annotation>>asList(
+			AssertFalse.class, AssertTrue.class, Future.class, NotNull.class, Null.class, Past.class));
 	
 	protected ConverterContext ctx;
 	
+	/** the methods of each converted annotation-type keyed by their names */
+	private Map<Name, Map<String, ExecutableElement>> attributes = new HashMap<>();
+	
 	public BeanvalConverter(ConverterContext ctx) {
 		this.ctx = ctx;
 	}
@@ -81,19 +79,18 @@ public class BeanvalConverter {
 	 * @return all Annotations which can be converted by this Converter
 	 */
 	public List<Class<? extends Annotation>> getAcceptedTypes() {
-		return Arrays.asList(AssertFalse.class, AssertTrue.class, Future.class, NotNull.class, Null.class, Past.class);
+		return ACCEPTED_TYPES;
 	}
 	
 	/**
 	 * @return true if this converter can handle the given TypeElement
 	 */
 	public boolean accepts(TypeElement typeElement) {
-		if (typeElement == null || getAcceptedTypes() == null) {
+		if (typeElement == null) {
 			return false;
 		}
 		for (Class<? extends Annotation> annotation : getAcceptedTypes()) {
-			TypeElement annotationType = ctx.getElementUtils().getTypeElement(annotation.getName());
-			if (ctx.getTypeUtils().isSameType(typeElement.asType(), annotationType.asType())) {
+			if (typeElement.getQualifiedName().contentEquals(annotation.getName())) {
 				return true;
 			}
 		}
@@ -101,113 +98,97 @@ public class BeanvalConverter {
 	}
 
 	/**
-	 * Searches for all properties which are annotated with given TypeElement and
-	 * updates the constraintsMap with the according constraints
+	 * @return the type of the constraints created by this Converter
 	 */
-	public void addConstraints(TypeElement typeElement, RoundEnvironment roundEnv, Map<String, Constraints> constraintsMap) throws ProcessingException {
-		for (Element element : roundEnv.getElementsAnnotatedWith(typeElement)) {
-			String name = getFqn(element);
-			if (ctx.ignoreProperty(name)) {
-				continue;
-			}
-			for (AnnotationMirror annotationMirror : element.getAnnotationMirrors()) {
-				if (!ctx.getTypeUtils().isSameType(typeElement.asType(), annotationMirror.getAnnotationType())) {
-					continue;
-				}
-				Constraint constraint = convertConstraint(annotationMirror);
-				Constraints constraints = getConstraints(constraintsMap, name);
-				try {
-					String methodName = String.format("%s%s", IDENTIFIER_SETTER, typeElement.getSimpleName());
-					constraints.getClass().getMethod(methodName, constraint.getClass()).invoke(constraints, constraint);
-				} catch (IllegalAccessException 
-							| IllegalArgumentException 
-							| InvocationTargetException 
-							| NoSuchMethodException
-							| SecurityException ex) {
-					throw new ProcessingException(String.format("Could not add %s-Constraint from %s: %s", 
-									typeElement.getSimpleName(), element.getSimpleName(), ex.getMessage()));					
-				}
-			}
-		}
+	public Class<? extends Constraint> getConstraintType() {
+		return Constraint.class;
+	}
+
+	/**
+	 * Converts the given AnnotationMirror and stores
+	 * the resulting constraint in the given slot of constraints
+	 */
+	public void addConstraint(ConstraintSlot slot, AnnotationMirror annotationMirror, Constraints constraints) {
+		slot.set(constraints, convert(getAnnotationValues(annotationMirror)));
 	}
 	
 	/**
-	 * Converts an AnnotationMirror to a constraint. 
-	 * Should be overriden by specific converters. 
+	 * Converts the given values of an annotation which were not read by the compiler
+	 * and stores the resulting constraint in the given slot of constraints
 	 */
-	protected Constraint convertConstraint(AnnotationMirror annotationMirror) {
-		Constraint constraint = new Constraint();
-		setConstraintDefaults(constraint, ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror));
-		return constraint;
+	public void addConstraint(ConstraintSlot slot, AnnotationValues annotationValues, Constraints constraints) {
+		slot.set(constraints, convert(annotationValues));
 	}
 	
 	/**
-	 * sets the defaultValues of a constraint
+	 * Reads the values of the given AnnotationMirror so they can
+	 * be converted later on another thread
 	 */
-	protected void setConstraintDefaults(Constraint constraint, Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues) {
-		constraint.setMessage(getValue(METHOD_MESSAGE, annotationValues).accept(MESSAGE_VISITOR, ctx.getMessages()));
-		constraint.setPayload(getValue(METHOD_PAYLOAD, annotationValues).accept(ARRAY_VISITOR, null));
-		constraint.setGroups(getValue(METHOD_GROUPS, annotationValues).accept(ARRAY_VISITOR, null));
+	public ConstraintDescriptor describe(ConstraintSlot slot, AnnotationMirror annotationMirror) {
+		return new ConstraintDescriptor(this, slot, getAnnotationValues(annotationMirror).snapshot());
 	}
-
+	
 	/**
-	 * @return the Constraints for given propertyName
-	 * or a new one if not present in the map.
+	 * Converts the values of an annotation to a constraint and
+	 * interpolates the message with the attributes of the constraint
 	 */
-	private Constraints getConstraints(Map<String, Constraints> constraintsMap, String propertyName) {
-		Constraints constraints = constraintsMap.get(propertyName);
-		if (constraints == null) {
-			constraints = new Constraints();
-			constraintsMap.put(propertyName, constraints);
-		}
-		return constraints;
+	Constraint convert(AnnotationValues annotationValues) {
+		Constraint constraint = convertConstraint(annotationValues);
+		constraint.setMessage(ctx.getMessageResolver().resolve(constraint.getMessageTemplate(), constraint.getMessageAttributes()));
+		return constraint;
 	}
 	
 	/**
-	 * @return the full qualified name for given element
+	 * Converts the values of an AnnotationMirror to a constraint. 
+	 * Should be overriden by specific converters. 
 	 */
-	private String getFqn(Element element) {
-		if (element == null) {
-			return "";
-		}		
-		return String.format("%s.%s.%s", ctx.getElementUtils().getPackageOf(element), element.getEnclosingElement().getSimpleName(), element.getSimpleName().toString());
+	protected Constraint convertConstraint(AnnotationValues annotationValues) {
+		Constraint constraint = new Constraint();
+		setConstraintDefaults(constraint, annotationValues);
+		return constraint;
 	}
 	
 	/**
-	 * Something like map.get(key). Anyone knows how to easily create an ExecutableElement?
+	 * sets the defaultValues of a constraint. 
+	 * The message is resolved after the conversion, when all attributes are set.
 	 */
-	protected AnnotationValue getValue(String methodName, Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues) {
-		for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : annotationValues.entrySet()) {			
-			if (entry.getKey().getSimpleName().contentEquals(methodName)) {
-				return entry.getValue();
+	protected void setConstraintDefaults(Constraint constraint, AnnotationValues annotationValues) {
+		constraint.setMessageTemplate(annotationValues.get(METHOD_MESSAGE).accept(TEMPLATE_VISITOR, null));
+		constraint.setPayload(ctx.getInterner().intern(annotationValues.get(METHOD_PAYLOAD).accept(ARRAY_VISITOR, null)));
+		constraint.setGroups(ctx.getInterner().intern(annotationValues.get(METHOD_GROUPS).accept(ARRAY_VISITOR, null)));
+	}
+	
+	/**
+	 * @return the values of the given AnnotationMirror including defaults
+	 */
+	protected AnnotationValues getAnnotationValues(AnnotationMirror annotationMirror) {
+		TypeElement annotationType = (TypeElement) annotationMirror.getAnnotationType().asElement();
+		Map<String, ExecutableElement> methods = attributes.get(annotationType.getQualifiedName());
+		if (methods == null) {
+			methods = new HashMap<>();
+			for (ExecutableElement method : ElementFilter.methodsIn(annotationType.getEnclosedElements())) {
+				methods.put(method.getSimpleName().toString(), method);
 			}
+			attributes.put(annotationType.getQualifiedName(), methods);
 		}
-		return null;
+		return new AnnotationValues(ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror), methods);
 	}
-	
+
 	/**
-	 * Visitor which parses the message from a javax.validation.Constraint.
-	 * If the message is parenthesized in curley brackets like 
-	 * {javax.validation.constraints.NotNull.message} this method will check
-	 * if there is a according property in the messagesFile. 
+	 * Visitor which reads the message-template from a javax.validation.Constraint.
+	 * The template is resolved by the MessageResolver, so it can be resolved
+	 * again with the messages of another locale.
 	 */
-	private static final AnnotationValueVisitor<String, Properties> MESSAGE_VISITOR = new SimpleAnnotationValueVisitor7<String, Properties>() {
+	private static final AnnotationValueVisitor<String, Void> TEMPLATE_VISITOR = new SimpleAnnotationValueVisitor7<String, Void>() {
 		@Override
-		public String visitString(String value, Properties messages) {
-			if (StringUtils.isBlank(value)) {
-				return null;
-			}
-			if (value.startsWith(IDENTIFIER_MSG_KEY_START) 
-					&& value.endsWith(IDENTIFIER_MSG_KEY_END)
-					&& messages != null) {
-				return messages.getProperty(value.substring(1, value.length() - 1));
-			}
+		public String visitString(String value, Void p) {
 			return value;
 		}
 	};
 	
 	/**
-	 * Visitor which parses all ArrayProperties from a javax.validation.constraint
+	 * Visitor which parses all ArrayProperties from a javax.validation.constraint.
+	 * The lists should be passed to the Interner of the ConverterContext.
 	 */
 	public static final AnnotationValueVisitor<List<String>, Void> ARRAY_VISITOR = new SimpleAnnotationValueVisitor7<List<String>, Void>() {
 		@Override
@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+
+/**
+ * The snapshotted values of one AnnotationMirror together with the converter
+ * and slot it belongs to. Created on the compiler-thread, converted on any thread.
+ * @author Florian Hirsch
+ */
+public class ConstraintDescriptor {
+
+	private final BeanvalConverter converter;
+
+	private final ConstraintSlot slot;
+
+	private final AnnotationValues annotationValues;
+
+	ConstraintDescriptor(BeanvalConverter converter, ConstraintSlot slot, AnnotationValues annotationValues) {
+		this.converter = converter;
+		this.slot = slot;
+		this.annotationValues = annotationValues;
+	}
+
+	public ConstraintSlot getSlot() {
+		return slot;
+	}
+
+	/**
+	 * @return the converted constraint, to be stored in the slot of this descriptor
+	 */
+	public Constraint convert() {
+		return converter.convert(annotationValues);
+	}
+
+}
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.lang.annotation.Annotation;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.Name;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.util.Elements;
+
+import de.adorsys.beanval2json.ConverterContext;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+
+/**
+ * Immutable lookup-table from the qualified name of an annotation
+ * to the slot of Constraints it is stored in and the converter
+ * which is responsible for it.
+ * @author Florian Hirsch
+ */
+public class ConverterRegistry {
+
+	private final Map<Name, ConstraintSlot> slots;
+
+	private final Map<String, ConstraintSlot> slotsByName;
+
+	private final Map<ConstraintSlot, BeanvalConverter> converters;
+
+	/**
+	 * Registers the accepted types of all given converters.
+	 * An annotation must not be accepted by more than one converter and
+	 * the converter has to create constraints which fit into the according slot.
+	 * @param elementUtils may be null if the annotations are not read by the compiler
+	 */
+	public ConverterRegistry(Elements elementUtils, BeanvalConverter... converters) throws ProcessingException {
+		Map<Name, ConstraintSlot> slotMap = new HashMap<>();
+		Map<String, ConstraintSlot> slotByNameMap = new HashMap<>();
+		Map<ConstraintSlot, BeanvalConverter> converterMap = new EnumMap<>(ConstraintSlot.class);
+		for (BeanvalConverter converter : converters) {
+			for (Class<? extends Annotation> annotation : converter.getAcceptedTypes()) {
+				ConstraintSlot slot = ConstraintSlot.forAnnotation(annotation);
+				if (slot == null) {
+					throw new ProcessingException(String.format("%s accepts unsupported annotation %s", 
+							converter.getClass().getSimpleName(), annotation.getName()));
+				}
+				if (!slot.getConstraintType().isAssignableFrom(converter.getConstraintType())) {
+					throw new ProcessingException(String.format("%s creates %s but %s requires %s", 
+							converter.getClass().getSimpleName(), converter.getConstraintType().getSimpleName(), 
+							annotation.getName(), slot.getConstraintType().getSimpleName()));
+				}
+				BeanvalConverter registered = converterMap.put(slot, converter);
+				if (registered != null) {
+					throw new ProcessingException(String.format("%s is accepted by %s and %s", annotation.getName(),
+							registered.getClass().getSimpleName(), converter.getClass().getSimpleName()));
+				}
+				if (elementUtils != null) {
+					slotMap.put(elementUtils.getName(annotation.getName()), slot);
+				}
+				slotByNameMap.put(annotation.getName(), slot);
+			}
+		}
+		this.slots = Collections.unmodifiableMap(slotMap);
+		this.slotsByName = Collections.unmodifiableMap(slotByNameMap);
+		this.converters = Collections.unmodifiableMap(converterMap);
+	}
+
+	/**
+	 * @return a registry with the converters for all supported annotations
+	 */
+	public static ConverterRegistry withDefaultConverters(ConverterContext ctx) throws ProcessingException {
+		return new ConverterRegistry(ctx.getElementUtils(),
+				new BeanvalConverter(ctx),
+				new NumericConverter(ctx),
+				new DigitsConverter(ctx),
+				new PatternConverter(ctx),
+				new SizeConverter(ctx));
+	}
+
+	/**
+	 * @return the slot for the given annotation-type or null if the annotation is not supported
+	 */
+	public ConstraintSlot slotFor(TypeElement annotationType) {
+		return slots.get(annotationType.getQualifiedName());
+	}
+
+	/**
+	 * @return the slot for the type of the given annotation or null if the annotation is not supported
+	 */
+	public ConstraintSlot slotFor(AnnotationMirror annotationMirror) {
+		return slotFor((TypeElement) annotationMirror.getAnnotationType().asElement());
+	}
+
+	/**
+	 * @param annotationName the binary name of the annotation-type
+	 * @return the slot for the given annotation-type or null if the annotation is not supported
+	 */
+	public ConstraintSlot slotFor(String annotationName) {
+		return slotsByName.get(annotationName);
+	}
+
+	/**
+	 * @return the converter for the given slot
+	 */
+	public BeanvalConverter converterFor(ConstraintSlot slot) {
+		return converters.get(slot);
+	}
+
+}
@@ -16,13 +16,9 @@
 package de.adorsys.beanval2json.converter;
 
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.AnnotationValue;
-import javax.lang.model.element.ExecutableElement;
 import javax.validation.constraints.Digits;
 
 import de.adorsys.beanval2json.ConverterContext;
@@ -39,24 +35,28 @@ public class DigitsConverter extends BeanvalConverter {
 	
 	private static final String METHOD_FRACTION = "fraction";
 	
+	private static final List<Class<? extends Annotation>> ACCEPTED_TYPES = Collections.<Class<? extends Annotation>>singletonList(Digits.class);
+	
 	public DigitsConverter(ConverterContext ctx) {
 		super(ctx);
 	}
 	
 	@Override
 	public List<Class<? extends Annotation>> getAcceptedTypes() {
-		List<Class<? extends Annotation>> acceptedTypes = new ArrayList<>();
-		acceptedTypes.add(Digits.class);
-		return acceptedTypes;
+		return ACCEPTED_TYPES;
+	}
+
+	@Override
+	public Class<? extends Constraint> getConstraintType() {
+		return DigitsConstraint.class;
 	}
 
 	@Override
-	protected Constraint convertConstraint(AnnotationMirror annotationMirror) {
+	protected Constraint convertConstraint(AnnotationValues annotationValues) {
 		DigitsConstraint constraint = new DigitsConstraint();
-		Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues = ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror);
 		setConstraintDefaults(constraint, annotationValues);
-		constraint.setInteger((int) getValue(METHOD_INTEGER, annotationValues).getValue());
-		constraint.setFraction((int) getValue(METHOD_FRACTION, annotationValues).getValue());
+		constraint.setInteger((int) annotationValues.get(METHOD_INTEGER).getValue());
+		constraint.setFraction((int) annotationValues.get(METHOD_FRACTION).getValue());
 		return constraint;
 	}	
 	
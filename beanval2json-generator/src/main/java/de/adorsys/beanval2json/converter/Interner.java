@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import de.adorsys.beanval2json.constraint.Constraint;
+import de.adorsys.beanval2json.constraint.ConstraintSlot;
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * Canonicalizing cache for the groups, payloads and flags of the constraints.
+ * Most properties share the same few group- and payload-classes, so equal lists
+ * are stored once as immutable list instead of once per constraint.
+ * Instances can be used by multiple threads.
+ * @author Florian Hirsch
+ */
+public class Interner {
+
+	private final ConcurrentMap<String, String> strings = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<List<String>, List<String>> lists = new ConcurrentHashMap<>();
+
+	/**
+	 * @return the canonical instance of given string
+	 */
+	public String intern(String string) {
+		if (string == null) {
+			return null;
+		}
+		String interned = strings.putIfAbsent(string, string);
+		return interned == null ? string : interned;
+	}
+
+	/**
+	 * @return an immutable list equal to the given one, the same instance for equal lists
+	 * and the empty list for empty lists. Null if values is null.
+	 */
+	public List<String> intern(List<String> values) {
+		if (values == null) {
+			return null;
+		}
+		if (values.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<String> interned = lists.get(values);
+		if (interned != null) {
+			return interned;
+		}
+		List<String> copy = new ArrayList<>(values.size());
+		for (String value : values) {
+			copy.add(intern(value));
+		}
+		interned = Collections.unmodifiableList(copy);
+		List<String> existing = lists.putIfAbsent(interned, interned);
+		return existing == null ? interned : existing;
+	}
+
+	/**
+	 * replaces the groups and payloads of all given constraints by their canonical instances
+	 */
+	public void intern(Constraints constraints) {
+		for (ConstraintSlot slot : ConstraintSlot.values()) {
+			Constraint constraint = slot.get(constraints);
+			if (constraint != null) {
+				constraint.setGroups(intern(constraint.getGroups()));
+				constraint.setPayload(intern(constraint.getPayload()));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,166 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Resolves the message-templates of the constraint-annotations like the MessageInterpolator of Beanvalidation:
+ * - If the template is parenthesized in curley brackets like {javax.validation.constraints.NotNull.message}
+ *   the message is taken from the according property of the messages. The message is null if there is no such property.
+ * - Other parameters like in 'Please enter {my.field.name}' are replaced by the according property 
+ *   of the messages (recursively). Parameters without property are kept.
+ * - Finally the attributes of the constraint like {min} and {max} are replaced by their values.
+ * Curley brackets and backslashes can be escaped by a backslash. Expressions like ${value} are not evaluated. 
+ *
+ * The resolved templates are cached and all messages are interned, so equal messages share one instance.
+ * Instances can be used by multiple threads.
+ * @author Florian Hirsch
+ */
+public class MessageResolver {
+
+	private static final char PARAMETER_START = '{';
+	
+	private static final char PARAMETER_END = '}';
+	
+	private static final char ESCAPE = '\\';
+	
+	private static final char EXPRESSION = '$';
+	
+	private static final String ESCAPED_CHARACTERS = "{}\\$";
+	
+	/** message-parameters referring to each other in a loop are not resolved further */
+	private static final int MAX_DEPTH = 10;
+	
+	/** stands for templates which resolve to null as the maps can't hold null */
+	private static final String NO_MESSAGE = new String();
+	
+	private final Properties messages;
+	
+	/** the templates resolved by the messages keyed by the templates */
+	private final ConcurrentMap<String, String> resolvedTemplates = new ConcurrentHashMap<>();
+	
+	private final ConcurrentMap<String, String> internedMessages = new ConcurrentHashMap<>();
+
+	/**
+	 * @param messages may be null, only the attributes are replaced then
+	 */
+	public MessageResolver(Properties messages) {
+		this.messages = messages;
+	}
+
+	/**
+	 * @return the message without attributes or null if the template is blank 
+	 * or there is no according property in the messages
+	 */
+	public String resolve(String template) {
+		return resolve(template, Collections.<String, Object>emptyMap());
+	}
+	
+	/**
+	 * @param attributes the values of the attributes of the constraint keyed by their names
+	 * @return the interpolated message or null if the template is blank 
+	 * or there is no according property in the messages
+	 */
+	public String resolve(String template, Map<String, ?> attributes) {
+		if (StringUtils.isBlank(template)) {
+			return null;
+		}
+		String resolvedTemplate = resolvedTemplates.get(template);
+		if (resolvedTemplate == null) {
+			resolvedTemplate = resolveTemplate(template);
+			resolvedTemplates.putIfAbsent(template, resolvedTemplate == null ? NO_MESSAGE : resolvedTemplate);
+		} else if (resolvedTemplate == NO_MESSAGE) {
+			return null;
+		}
+		if (resolvedTemplate == null) {
+			return null;
+		}
+		return intern(replace(resolvedTemplate, attributes, true));
+	}
+
+	/**
+	 * @return the template with all message-parameters replaced or null
+	 * if the whole template is a key which is not part of the messages
+	 */
+	private String resolveTemplate(String template) {
+		if (messages == null) {
+			return template;
+		}
+		if (template.charAt(0) == PARAMETER_START && template.indexOf(PARAMETER_END) == template.length() - 1) {
+			String message = messages.getProperty(template.substring(1, template.length() - 1));
+			if (message == null) {
+				return null;
+			}
+			template = message;
+		}
+		for (int depth = 0; depth < MAX_DEPTH; depth++) {
+			String resolved = replace(template, null, false);
+			if (resolved.equals(template)) {
+				break;
+			}
+			template = resolved;
+		}
+		return template;
+	}
+
+	/**
+	 * replaces all parameters like {name} which are contained in the attributes
+	 * @param attributes the messages are used if null
+	 * @param unescape true to remove the backslashes of escaped characters
+	 */
+	private String replace(String text, Map<String, ?> attributes, boolean unescape) {
+		if (text.indexOf(PARAMETER_START) < 0 && (!unescape || text.indexOf(ESCAPE) < 0)) {
+			return text;
+		}
+		StringBuilder result = new StringBuilder(text.length());
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (c == ESCAPE && i + 1 < text.length() && ESCAPED_CHARACTERS.indexOf(text.charAt(i + 1)) >= 0) {
+				if (!unescape) {
+					result.append(c);
+				}
+				result.append(text.charAt(++i));
+				continue;
+			}
+			int end = text.indexOf(PARAMETER_END, i);
+			Object value = null;
+			if (c == PARAMETER_START && end > i && (i == 0 || text.charAt(i - 1) != EXPRESSION)) {
+				String name = text.substring(i + 1, end);
+				value = attributes == null ? messages.getProperty(name) : attributes.get(name);
+			}
+			if (value == null) {
+				result.append(c);
+			} else {
+				result.append(value);
+				i = end;
+			}
+		}
+		return result.toString();
+	}
+
+	private String intern(String message) {
+		String interned = internedMessages.putIfAbsent(message, message);
+		return interned == null ? message : interned;
+	}
+
+}
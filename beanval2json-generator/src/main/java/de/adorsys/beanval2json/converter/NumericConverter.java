@@ -17,12 +17,10 @@ package de.adorsys.beanval2json.converter;
 
 import java.lang.annotation.Annotation;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.AnnotationValue;
-import javax.lang.model.element.ExecutableElement;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.Max;
@@ -46,22 +44,29 @@ public class NumericConverter extends BeanvalConverter {
 	
 	private static final String METHOD_INCLUSIVE = "inclusive";
 	
+	private static final List<Class<? extends Annotation>> ACCEPTED_TYPES = Collections.unmodifiableList(Arrays.<Class<? extends Annotation>>asList(
+			DecimalMin.class, DecimalMax.class, Min.class, Max.class));
+	
 	public NumericConverter(ConverterContext ctx) {
 		super(ctx);
 	}
 	
 	@Override
 	public List<Class<? extends Annotation>> getAcceptedTypes() {
-		return Arrays.asList(DecimalMin.class, DecimalMax.class, Min.class, Max.class);
+		return ACCEPTED_TYPES;
+	}
+
+	@Override
+	public Class<? extends Constraint> getConstraintType() {
+		return NumericConstraint.class;
 	}
 
 	@Override
-	protected Constraint convertConstraint(AnnotationMirror annotationMirror) {
+	protected Constraint convertConstraint(AnnotationValues annotationValues) {
 		NumericConstraint constraint = new NumericConstraint();
-		Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues = ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror);
 		setConstraintDefaults(constraint, annotationValues);
-		constraint.setValue(getValue(METHOD_VALUE, annotationValues).getValue().toString());
-		AnnotationValue inclusive = getValue(METHOD_INCLUSIVE, annotationValues);
+		constraint.setValue(annotationValues.get(METHOD_VALUE).getValue().toString());
+		AnnotationValue inclusive = annotationValues.get(METHOD_INCLUSIVE);
 		constraint.setInclusive(inclusive == null ? null : (Boolean) inclusive.getValue());
 		return constraint;
 	}	
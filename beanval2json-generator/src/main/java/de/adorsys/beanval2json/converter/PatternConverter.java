@@ -16,13 +16,9 @@
 package de.adorsys.beanval2json.converter;
 
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.AnnotationValue;
-import javax.lang.model.element.ExecutableElement;
 import javax.validation.constraints.Pattern;
 
 import de.adorsys.beanval2json.ConverterContext;
@@ -39,24 +35,36 @@ public class PatternConverter extends BeanvalConverter {
 	
 	private static final String METHOD_FLAGS = "flags";
 	
+	private static final List<Class<? extends Annotation>> ACCEPTED_TYPES = Collections.<Class<? extends Annotation>>singletonList(Pattern.class);
+	
 	public PatternConverter(ConverterContext ctx) {
 		super(ctx);
 	}
 	
 	@Override
 	public List<Class<? extends Annotation>> getAcceptedTypes() {
-		List<Class<? extends Annotation>> acceptedTypes = new ArrayList<>();
-		acceptedTypes.add(Pattern.class);
-		return acceptedTypes;
+		return ACCEPTED_TYPES;
+	}
+
+	@Override
+	public Class<? extends Constraint> getConstraintType() {
+		return PatternConstraint.class;
 	}
 
 	@Override
-	protected Constraint convertConstraint(AnnotationMirror annotationMirror) {		
+	protected Constraint convertConstraint(AnnotationValues annotationValues) {		
 		PatternConstraint constraint = new PatternConstraint();
-		Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues = ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror);
 		setConstraintDefaults(constraint, annotationValues);
-		constraint.setRegexp(getValue(METHOD_REGEXP, annotationValues).getValue().toString());
-		constraint.setFlags(getValue(METHOD_FLAGS, annotationValues).accept(ARRAY_VISITOR, null));
+		constraint.setRegexp(annotationValues.get(METHOD_REGEXP).getValue().toString());
+		constraint.setFlags(ctx.getInterner().intern(annotationValues.get(METHOD_FLAGS).accept(ARRAY_VISITOR, null)));
+		RegexpTranslator.Translation translation = ctx.getRegexpTranslator().translate(constraint.getRegexp(), constraint.getFlags());
+		if (translation.getRegexp() != null && !translation.getRegexp().equals(constraint.getRegexp())) {
+			constraint.setJsRegexp(ctx.getInterner().intern(translation.getRegexp()));
+		}
+		if (translation.getFlags() != null && !translation.getFlags().isEmpty()) {
+			constraint.setJsFlags(ctx.getInterner().intern(translation.getFlags()));
+		}
+		constraint.setJsProblem(translation.getProblem());
 		return constraint;
 	}	
 	
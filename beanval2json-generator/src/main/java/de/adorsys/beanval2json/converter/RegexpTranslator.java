@@ -0,0 +1,648 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.converter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Translates the regexp and the Pattern.Flags of javax.validation.constraints.Pattern 
+ * to an equivalent ECMAScript-pattern (ES2018) and its flags:
+ * - CASE_INSENSITIVE, MULTILINE and DOTALL become 'i', 'm' and 's', UNICODE_CASE adds 'u' to 'i',
+ *   COMMENTS is applied by removing the whitespace and comments, UNIX_LINES by replacing the dot.
+ *   Inline flags at the start of the regexp like (?i) are moved to the flags.
+ * - \Q...\E, \a, \e, \h, \v, \R, \A, \z, \Z, \x{...}, octal escapes and the POSIX-classes like \p{Alpha} are replaced
+ *   by their equivalents, Unicode-categories, -scripts and -properties like \p{Lu} are kept with the flag 'u'.
+ * - Escaped characters without special meaning are unescaped, as they are not allowed with the flag 'u'.
+ * Possessive quantifiers, atomic groups, inline flags within the regexp, unions and intersections of character-classes,
+ * \G, \X, \N, \b{g}, Unicode-blocks, java.lang.Character-classes as well as CANON_EQ can't be expressed in ECMAScript.
+ * Neither can CASE_INSENSITIVE without UNICODE_CASE for non-ASCII characters, as 'i' folds them as well.
+ * For those the translation contains the problem instead of the pattern. \s, \w and the dot differ in some non-ASCII
+ * line-terminators and whitespaces which are accepted.
+ *
+ * The translations are cached, instances can be used by multiple threads.
+ * @author Florian Hirsch
+ */
+public class RegexpTranslator {
+
+	private static final String FLAG_CASE_INSENSITIVE = "CASE_INSENSITIVE";
+	private static final String FLAG_MULTILINE = "MULTILINE";
+	private static final String FLAG_DOTALL = "DOTALL";
+	private static final String FLAG_UNICODE_CASE = "UNICODE_CASE";
+	private static final String FLAG_COMMENTS = "COMMENTS";
+	private static final String FLAG_UNIX_LINES = "UNIX_LINES";
+	private static final String FLAG_CANON_EQ = "CANON_EQ";
+
+	/** the characters which have to be escaped outside of character-classes in ECMAScript */
+	private static final String SYNTAX_CHARACTERS = "^$\\.*+?()[]{}|/";
+
+	/** the characters which have to be escaped within character-classes in ECMAScript */
+	private static final String CLASS_SYNTAX_CHARACTERS = "\\]-^[";
+
+	private static final String HORIZONTAL_WHITESPACE = " \\t\\xA0\\u1680\\u180E\\u2000-\\u200A\\u202F\\u205F\\u3000";
+
+	private static final String VERTICAL_WHITESPACE = "\\n\\x0B\\f\\r\\x85\\u2028\\u2029";
+
+	/** non-ASCII characters, escapes of them and properties within a translated regexp */
+	private static final Pattern NON_ASCII = Pattern.compile("[^\\x00-\\x7F]|(?<!\\\\)(?:\\\\\\\\)*\\\\(?:x[89A-Fa-f]|u(?!00[0-7])|[pP])");
+
+	/** the content of the character-classes of the POSIX-classes of java.util.regex.Pattern */
+	private static final Map<String, String> POSIX_CLASSES = new HashMap<>();
+
+	/** the binary Unicode-properties which are named differently in ECMAScript */
+	private static final Map<String, String> BINARY_PROPERTIES = new HashMap<>();
+
+	private static final List<String> GENERAL_CATEGORIES = Arrays.asList("L", "Lu", "Ll", "Lt", "LC", "Lm", "Lo", "M", "Mn", "Mc", "Me",
+			"N", "Nd", "Nl", "No", "P", "Pc", "Pd", "Ps", "Pe", "Pi", "Pf", "Po", "S", "Sm", "Sc", "Sk", "So", "Z", "Zs", "Zl", "Zp",
+			"C", "Cc", "Cf", "Cs", "Co", "Cn");
+
+	static {
+		POSIX_CLASSES.put("Lower", "a-z");
+		POSIX_CLASSES.put("Upper", "A-Z");
+		POSIX_CLASSES.put("ASCII", "\\x00-\\x7F");
+		POSIX_CLASSES.put("Alpha", "a-zA-Z");
+		POSIX_CLASSES.put("Digit", "0-9");
+		POSIX_CLASSES.put("Alnum", "a-zA-Z0-9");
+		POSIX_CLASSES.put("Punct", "!-\\/:-@\\[-`{-~");
+		POSIX_CLASSES.put("Graph", "!-~");
+		POSIX_CLASSES.put("Print", " -~");
+		POSIX_CLASSES.put("Blank", " \\t");
+		POSIX_CLASSES.put("Cntrl", "\\x00-\\x1F\\x7F");
+		POSIX_CLASSES.put("XDigit", "0-9a-fA-F");
+		POSIX_CLASSES.put("Space", " \\t\\n\\x0B\\f\\r");
+		BINARY_PROPERTIES.put("Alphabetic", "Alphabetic");
+		BINARY_PROPERTIES.put("Ideographic", "Ideographic");
+		BINARY_PROPERTIES.put("Letter", "L");
+		BINARY_PROPERTIES.put("Lowercase", "Lowercase");
+		BINARY_PROPERTIES.put("Uppercase", "Uppercase");
+		BINARY_PROPERTIES.put("Titlecase", "Lt");
+		BINARY_PROPERTIES.put("Punctuation", "P");
+		BINARY_PROPERTIES.put("Control", "Cc");
+		BINARY_PROPERTIES.put("White_Space", "White_Space");
+		BINARY_PROPERTIES.put("WhiteSpace", "White_Space");
+		BINARY_PROPERTIES.put("Digit", "Nd");
+		BINARY_PROPERTIES.put("Hex_Digit", "Hex_Digit");
+		BINARY_PROPERTIES.put("HexDigit", "Hex_Digit");
+		BINARY_PROPERTIES.put("Join_Control", "Join_Control");
+		BINARY_PROPERTIES.put("JoinControl", "Join_Control");
+		BINARY_PROPERTIES.put("Noncharacter_Code_Point", "Noncharacter_Code_Point");
+		BINARY_PROPERTIES.put("NoncharacterCodePoint", "Noncharacter_Code_Point");
+		BINARY_PROPERTIES.put("Assigned", "Assigned");
+	}
+
+	private final ConcurrentMap<String, Translation> translations = new ConcurrentHashMap<>();
+
+	/**
+	 * @param flags the names of the Pattern.Flags, may be null
+	 */
+	public Translation translate(String regexp, List<String> flags) {
+		String key = flags == null || flags.isEmpty() ? regexp : regexp + '\n' + flags;
+		Translation translation = translations.get(key);
+		if (translation == null) {
+			translation = new Translator(regexp, flags).translate();
+			Translation existing = translations.putIfAbsent(key, translation);
+			translation = existing == null ? translation : existing;
+		}
+		return translation;
+	}
+
+	/**
+	 * The ECMAScript-pattern and -flags or the reason why the regexp can't be translated
+	 */
+	public static class Translation {
+
+		private final String regexp;
+
+		private final String flags;
+
+		private final String problem;
+
+		private Translation(String regexp, String flags, String problem) {
+			this.regexp = regexp;
+			this.flags = flags;
+			this.problem = problem;
+		}
+
+		/**
+		 * @return the ECMAScript-pattern or null if the regexp can't be translated
+		 */
+		public String getRegexp() {
+			return regexp;
+		}
+
+		/**
+		 * @return the ECMAScript-flags like "im", empty if there are none, null if the regexp can't be translated
+		 */
+		public String getFlags() {
+			return flags;
+		}
+
+		/**
+		 * @return why the regexp can't be translated or null if it can
+		 */
+		public String getProblem() {
+			return problem;
+		}
+	}
+
+	/**
+	 * Signals a construct which can't be expressed in ECMAScript
+	 */
+	private static class UntranslatableException extends Exception {
+
+		private static final long serialVersionUID = 1L;
+
+		private UntranslatableException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * Translates one regexp character by character
+	 */
+	private static class Translator {
+
+		private final String regexp;
+
+		private final List<String> flags;
+
+		private final StringBuilder out = new StringBuilder();
+
+		private int pos;
+
+		private boolean caseInsensitive;
+
+		private boolean multiline;
+
+		private boolean dotall;
+
+		private boolean unicodeCase;
+
+		private boolean comments;
+
+		private boolean unixLines;
+
+		/** true if the pattern requires the flag 'u' */
+		private boolean unicode;
+
+		private Translator(String regexp, List<String> flags) {
+			this.regexp = regexp;
+			this.flags = flags;
+		}
+
+		private Translation translate() {
+			try {
+				Pattern.compile(regexp, flags != null && flags.contains(FLAG_COMMENTS) ? Pattern.COMMENTS : 0);
+			} catch (PatternSyntaxException ex) {
+				return new Translation(null, null, String.format("invalid regexp: %s", ex.getDescription()));
+			}
+			try {
+				if (flags != null) {
+					for (String flag : flags) {
+						applyFlag(flag);
+					}
+				}
+				readLeadingInlineFlags();
+				if (unixLines && multiline) {
+					throw new UntranslatableException("UNIX_LINES together with MULTILINE");
+				}
+				while (pos < regexp.length()) {
+					translateNext();
+				}
+			} catch (UntranslatableException ex) {
+				return new Translation(null, null, ex.getMessage());
+			}
+			if (caseInsensitive && !unicodeCase && NON_ASCII.matcher(out).find()) {
+				return new Translation(null, null, "CASE_INSENSITIVE without UNICODE_CASE for non-ASCII characters");
+			}
+			StringBuilder jsFlags = new StringBuilder();
+			jsFlags.append(caseInsensitive ? "i" : "").append(multiline ? "m" : "").append(dotall ? "s" : "");
+			jsFlags.append(unicode || caseInsensitive && unicodeCase ? "u" : "");
+			return new Translation(out.toString(), jsFlags.toString(), null);
+		}
+
+		private void applyFlag(String flag) throws UntranslatableException {
+			if (FLAG_CASE_INSENSITIVE.equals(flag)) {
+				caseInsensitive = true;
+			} else if (FLAG_MULTILINE.equals(flag)) {
+				multiline = true;
+			} else if (FLAG_DOTALL.equals(flag)) {
+				dotall = true;
+			} else if (FLAG_UNICODE_CASE.equals(flag)) {
+				unicodeCase = true;
+			} else if (FLAG_COMMENTS.equals(flag)) {
+				comments = true;
+			} else if (FLAG_UNIX_LINES.equals(flag)) {
+				unixLines = true;
+			} else if (FLAG_CANON_EQ.equals(flag)) {
+				throw new UntranslatableException("the flag CANON_EQ");
+			} else {
+				throw new UntranslatableException(String.format("the unknown flag %s", flag));
+			}
+		}
+
+		/**
+		 * moves inline flags like (?i) at the start of the regexp to the flags
+		 */
+		private void readLeadingInlineFlags() throws UntranslatableException {
+			if (!regexp.startsWith("(?")) {
+				return;
+			}
+			int end = regexp.indexOf(')');
+			String inlineFlags = end < 0 ? "" : regexp.substring(2, end);
+			if (!inlineFlags.matches("[idmsux]+")) {
+				return;
+			}
+			for (char flag : inlineFlags.toCharArray()) {
+				applyFlag(inlineFlag(flag));
+			}
+			pos = end + 1;
+		}
+
+		private String inlineFlag(char flag) {
+			switch (flag) {
+			case 'i':
+				return FLAG_CASE_INSENSITIVE;
+			case 'd':
+				return FLAG_UNIX_LINES;
+			case 'm':
+				return FLAG_MULTILINE;
+			case 's':
+				return FLAG_DOTALL;
+			case 'u':
+				return FLAG_UNICODE_CASE;
+			default:
+				return FLAG_COMMENTS;
+			}
+		}
+
+		private void translateNext() throws UntranslatableException {
+			char c = regexp.charAt(pos);
+			if (comments && skipComment()) {
+				return;
+			}
+			pos++;
+			switch (c) {
+			case '\\':
+				out.append(translateEscape(false));
+				break;
+			case '[':
+				translateClass();
+				break;
+			case '(':
+				translateGroup();
+				break;
+			case '.':
+				out.append(unixLines && !dotall ? "[^\\n]" : ".");
+				break;
+			case '*':
+			case '+':
+			case '?':
+				out.append(c);
+				translateQuantifierMode();
+				break;
+			case '{':
+				int end = regexp.indexOf('}', pos);
+				if (end > 0 && regexp.substring(pos, end).matches("\\d+(,\\d*)?")) {
+					out.append(regexp, pos - 1, end + 1);
+					pos = end + 1;
+					translateQuantifierMode();
+				} else {
+					out.append("\\{");
+				}
+				break;
+			case '}':
+			case ']':
+			case '/':
+				out.append('\\').append(c);
+				break;
+			default:
+				out.append(c);
+			}
+		}
+
+		/**
+		 * @return true if whitespace or a comment was skipped in the COMMENTS-mode
+		 */
+		private boolean skipComment() {
+			char c = regexp.charAt(pos);
+			if (Character.isWhitespace(c)) {
+				pos++;
+				return true;
+			}
+			if (c == '#') {
+				while (pos < regexp.length() && regexp.charAt(pos) != '\n') {
+					pos++;
+				}
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * copies a lazy quantifier-mode, possessive quantifiers can't be expressed
+		 */
+		private void translateQuantifierMode() throws UntranslatableException {
+			if (pos < regexp.length() && regexp.charAt(pos) == '?') {
+				out.append('?');
+				pos++;
+			} else if (pos < regexp.length() && regexp.charAt(pos) == '+') {
+				throw new UntranslatableException("a possessive quantifier");
+			}
+		}
+
+		private void translateGroup() throws UntranslatableException {
+			out.append('(');
+			if (pos >= regexp.length() || regexp.charAt(pos) != '?') {
+				return;
+			}
+			String rest = regexp.substring(pos);
+			if (rest.startsWith("?:") || rest.startsWith("?=") || rest.startsWith("?!") || rest.startsWith("?<=") || rest.startsWith("?<!")) {
+				return;
+			}
+			if (rest.startsWith("?<")) {
+				// a named group, the names allowed by Java are valid in ECMAScript
+				return;
+			}
+			if (rest.startsWith("?>")) {
+				throw new UntranslatableException("an atomic group");
+			}
+			throw new UntranslatableException("inline flags within the regexp");
+		}
+
+		/**
+		 * @return the translation of the escape-sequence after the backslash
+		 */
+		private String translateEscape(boolean inClass) throws UntranslatableException {
+			char c = regexp.charAt(pos++);
+			switch (c) {
+			case 'd':
+			case 'D':
+			case 's':
+			case 'S':
+			case 'w':
+			case 'W':
+			case 't':
+			case 'n':
+			case 'r':
+			case 'f':
+				return "\\" + c;
+			case 'b':
+			case 'B':
+				if (inClass) {
+					throw new UntranslatableException("\\" + c + " within a character-class");
+				}
+				if (pos < regexp.length() && regexp.charAt(pos) == '{') {
+					throw new UntranslatableException(String.format("the boundary \\%s{...}", c));
+				}
+				return "\\" + c;
+			case 'a':
+				return "\\x07";
+			case 'e':
+				return "\\x1B";
+			case 'c':
+				return "\\c" + regexp.charAt(pos++);
+			case 'u':
+				pos += 4;
+				return regexp.substring(pos - 6, pos);
+			case 'x':
+				return translateHexEscape();
+			case '0':
+				return translateOctalEscape();
+			case 'Q':
+				return translateQuote(inClass);
+			case 'E':
+				return "";
+			case 'h':
+				return inClass ? HORIZONTAL_WHITESPACE : "[" + HORIZONTAL_WHITESPACE + "]";
+			case 'v':
+				return inClass ? VERTICAL_WHITESPACE : "[" + VERTICAL_WHITESPACE + "]";
+			case 'H':
+			case 'V':
+				if (inClass) {
+					throw new UntranslatableException("\\" + c + " within a character-class");
+				}
+				return String.format("[^%s]", c == 'H' ? HORIZONTAL_WHITESPACE : VERTICAL_WHITESPACE);
+			case 'p':
+			case 'P':
+				return translateProperty(c == 'P', inClass);
+			case 'k':
+				int end = regexp.indexOf('>', pos);
+				String name = regexp.substring(pos - 2, end + 1);
+				pos = end + 1;
+				return name;
+			default:
+			}
+			if (!inClass) {
+				switch (c) {
+				case 'R':
+					return "(?:\\r\\n|[" + VERTICAL_WHITESPACE + "])";
+				case 'A':
+					return "(?<![\\s\\S])";
+				case 'z':
+					return "(?![\\s\\S])";
+				case 'Z':
+					return "(?=(?:\\r\\n|[\\n\\r\\x85\\u2028\\u2029])?(?![\\s\\S]))";
+				default:
+				}
+			}
+			if (c >= '1' && c <= '9' && !inClass) {
+				int start = pos - 1;
+				while (pos < regexp.length() && Character.isDigit(regexp.charAt(pos))) {
+					pos++;
+				}
+				return "\\" + regexp.substring(start, pos);
+			}
+			if (Character.isLetterOrDigit(c)) {
+				throw new UntranslatableException(String.format("the escape-sequence \\%s", c));
+			}
+			return escape(c, inClass);
+		}
+
+		/**
+		 * @return \xhh or \x{h...} as \xhh, \\uhhhh or \\u{h...}
+		 */
+		private String translateHexEscape() {
+			if (regexp.charAt(pos) != '{') {
+				pos += 2;
+				return regexp.substring(pos - 4, pos);
+			}
+			int end = regexp.indexOf('}', pos);
+			int codePoint = Integer.parseInt(regexp.substring(pos + 1, end), 16);
+			pos = end + 1;
+			return codePointEscape(codePoint);
+		}
+
+		/**
+		 * @return \0n, \0nn or \0mnn as hex-escape
+		 */
+		private String translateOctalEscape() {
+			int start = pos;
+			int maxLength = pos < regexp.length() && regexp.charAt(pos) <= '3' ? 3 : 2;
+			while (pos < regexp.length() && pos - start < maxLength && regexp.charAt(pos) >= '0' && regexp.charAt(pos) <= '7') {
+				pos++;
+			}
+			return codePointEscape(Integer.parseInt(regexp.substring(start, pos), 8));
+		}
+
+		private String codePointEscape(int codePoint) {
+			if (codePoint <= 0xFF) {
+				return String.format("\\x%02X", codePoint);
+			}
+			if (codePoint <= 0xFFFF) {
+				return String.format("\\u%04X", codePoint);
+			}
+			unicode = true;
+			return String.format("\\u{%X}", codePoint);
+		}
+
+		/**
+		 * @return the characters between \Q and \E escaped
+		 */
+		private String translateQuote(boolean inClass) {
+			int end = regexp.indexOf("\\E", pos);
+			String quoted = regexp.substring(pos, end < 0 ? regexp.length() : end);
+			pos = end < 0 ? regexp.length() : end + 2;
+			StringBuilder result = new StringBuilder();
+			for (char c : quoted.toCharArray()) {
+				result.append(escape(c, inClass));
+			}
+			return result.toString();
+		}
+
+		/**
+		 * @return the character, escaped if it has a special meaning in ECMAScript
+		 */
+		private String escape(char c, boolean inClass) {
+			if ((inClass ? CLASS_SYNTAX_CHARACTERS : SYNTAX_CHARACTERS).indexOf(c) >= 0) {
+				return "\\" + c;
+			}
+			if (c == '\n') {
+				return "\\n";
+			}
+			return String.valueOf(c);
+		}
+
+		/**
+		 * @return the translation of \p{Name}, \pL or the negations with \P
+		 */
+		private String translateProperty(boolean negated, boolean inClass) throws UntranslatableException {
+			String name;
+			if (regexp.charAt(pos) == '{') {
+				int end = regexp.indexOf('}', pos);
+				name = regexp.substring(pos + 1, end);
+				pos = end + 1;
+			} else {
+				name = regexp.substring(pos, pos + 1);
+				pos++;
+			}
+			String posixClass = POSIX_CLASSES.get(name);
+			if (posixClass != null) {
+				if (inClass && negated) {
+					throw new UntranslatableException(String.format("\\P{%s} within a character-class", name));
+				}
+				return inClass ? posixClass : String.format("[%s%s]", negated ? "^" : "", posixClass);
+			}
+			String property = unicodeProperty(name);
+			if (property == null) {
+				throw new UntranslatableException(String.format("the character-class \\p{%s}", name));
+			}
+			unicode = true;
+			return String.format("\\%s{%s}", negated ? 'P' : 'p', property);
+		}
+
+		/**
+		 * @return the name of the Unicode-property in ECMAScript or null if there is none
+		 */
+		private String unicodeProperty(String name) {
+			int separator = name.indexOf('=');
+			if (separator > 0) {
+				String key = name.substring(0, separator);
+				String value = name.substring(separator + 1);
+				if ("general_category".equalsIgnoreCase(key) || "gc".equalsIgnoreCase(key)) {
+					return GENERAL_CATEGORIES.contains(value) ? value : null;
+				}
+				if ("script".equalsIgnoreCase(key) || "sc".equalsIgnoreCase(key)) {
+					return scriptProperty(value);
+				}
+				return null;
+			}
+			String plainName = name.startsWith("Is") ? name.substring(2) : name;
+			if (GENERAL_CATEGORIES.contains(plainName)) {
+				return plainName;
+			}
+			if (name.startsWith("Is")) {
+				String binaryProperty = BINARY_PROPERTIES.get(plainName);
+				return binaryProperty == null ? scriptProperty(plainName) : binaryProperty;
+			}
+			return null;
+		}
+
+		/**
+		 * @return the script-property for names like Latin or Old_Italic
+		 */
+		private String scriptProperty(String script) {
+			return script.matches("[A-Z][a-z]+(_[A-Z][a-z]+)*") ? "Script=" + script : null;
+		}
+
+		private void translateClass() throws UntranslatableException {
+			out.append('[');
+			if (pos < regexp.length() && regexp.charAt(pos) == '^') {
+				out.append('^');
+				pos++;
+			}
+			if (pos < regexp.length() && regexp.charAt(pos) == ']') {
+				// a closing bracket at the start is a literal in Java
+				out.append("\\]");
+				pos++;
+			}
+			while (pos < regexp.length()) {
+				if (comments && skipComment()) {
+					continue;
+				}
+				char c = regexp.charAt(pos++);
+				switch (c) {
+				case ']':
+					out.append(']');
+					return;
+				case '[':
+					throw new UntranslatableException("a union of character-classes");
+				case '&':
+					if (pos < regexp.length() && regexp.charAt(pos) == '&') {
+						throw new UntranslatableException("an intersection of character-classes");
+					}
+					out.append(c);
+					break;
+				case '\\':
+					out.append(translateEscape(true));
+					break;
+				case '/':
+					out.append("\\/");
+					break;
+				default:
+					out.append(c);
+				}
+			}
+		}
+	}
+
+}
@@ -16,13 +16,9 @@
 package de.adorsys.beanval2json.converter;
 
 import java.lang.annotation.Annotation;
-import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 
-import javax.lang.model.element.AnnotationMirror;
-import javax.lang.model.element.AnnotationValue;
-import javax.lang.model.element.ExecutableElement;
 import javax.validation.constraints.Size;
 
 import de.adorsys.beanval2json.ConverterContext;
@@ -39,24 +35,28 @@ public class SizeConverter extends BeanvalConverter {
 	
 	private static final String METHOD_MAX = "max";
 	
+	private static final List<Class<? extends Annotation>> ACCEPTED_TYPES = Collections.<Class<? extends Annotation>>singletonList(Size.class);
+	
 	public SizeConverter(ConverterContext ctx) {
 		super(ctx);
 	}
 	
 	@Override
 	public List<Class<? extends Annotation>> getAcceptedTypes() {
-		List<Class<? extends Annotation>> acceptedTypes = new ArrayList<>();
-		acceptedTypes.add(Size.class);
-		return acceptedTypes;
+		return ACCEPTED_TYPES;
+	}
+
+	@Override
+	public Class<? extends Constraint> getConstraintType() {
+		return SizeConstraint.class;
 	}
 
 	@Override
-	protected Constraint convertConstraint(AnnotationMirror annotationMirror) {
+	protected Constraint convertConstraint(AnnotationValues annotationValues) {
 		SizeConstraint constraint = new SizeConstraint();
-		Map<? extends ExecutableElement, ? extends AnnotationValue> annotationValues = ctx.getElementUtils().getElementValuesWithDefaults(annotationMirror);
 		setConstraintDefaults(constraint, annotationValues);
-		constraint.setMin((int) getValue(METHOD_MIN, annotationValues).getValue());
-		constraint.setMax((int) getValue(METHOD_MAX, annotationValues).getValue());
+		constraint.setMin((int) annotationValues.get(METHOD_MIN).getValue());
+		constraint.setMax((int) annotationValues.get(METHOD_MAX).getValue());
 		return constraint;
 	}	
 	
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.runtime;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+import de.adorsys.beanval2json.ConstraintsWriter;
+import de.adorsys.beanval2json.constraint.Constraints;
+
+/**
+ * The serialized constraints held in memory, plain and gzipped,
+ * each with a strong ETag derived from its content.
+ * @author Florian Hirsch
+ */
+public class ConstraintsResource {
+
+	private static final String DIGEST_ALGORITHM = "SHA-256";
+
+	/** number of bytes of the digest used in the ETag */
+	private static final int HASH_LENGTH = 16;
+
+	private static final String GZIP_SUFFIX = "-gzip";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final byte[] content;
+
+	private final byte[] gzipContent;
+
+	private final String eTag;
+
+	private final String gzipETag;
+
+	private ConstraintsResource(byte[] content, byte[] gzipContent, String hash) {
+		this.content = content;
+		this.gzipContent = gzipContent;
+		this.eTag = '"' + hash + '"';
+		this.gzipETag = '"' + hash + GZIP_SUFFIX + '"';
+	}
+
+	public static ConstraintsResource create(Map<String, Constraints> constraints, ConstraintsWriter constraintsWriter) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (Writer writer = new OutputStreamWriter(out, UTF_8)) {
+			constraintsWriter.write(constraints, writer);
+		}
+		byte[] content = out.toByteArray();
+		ByteArrayOutputStream gzipOut = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(gzipOut) {
+			{
+				def.setLevel(Deflater.BEST_COMPRESSION);
+			}
+		}) {
+			gzip.write(content);
+		}
+		return new ConstraintsResource(content, gzipOut.toByteArray(), hash(content));
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			byte[] digest = MessageDigest.getInstance(DIGEST_ALGORITHM).digest(content);
+			StringBuilder hash = new StringBuilder();
+			for (int i = 0; i < HASH_LENGTH; i++) {
+				hash.append(String.format("%02x", digest[i]));
+			}
+			return hash.toString();
+		} catch (NoSuchAlgorithmException ex) {
+			throw new IllegalStateException(ex);
+		}
+	}
+
+	/**
+	 * @return the content, must not be modified
+	 */
+	public byte[] getContent(boolean gzip) {
+		return gzip ? gzipContent : content;
+	}
+
+	public String getETag(boolean gzip) {
+		return gzip ? gzipETag : eTag;
+	}
+
+	/**
+	 * @param ifNoneMatch the value of the If-None-Match header, may be null
+	 * @return true if the header contains the ETag of the given variant
+	 */
+	public boolean matches(String ifNoneMatch, boolean gzip) {
+		if (ifNoneMatch == null) {
+			return false;
+		}
+		String current = getETag(gzip);
+		for (String tag : ifNoneMatch.split(",")) {
+			tag = tag.trim();
+			// If-None-Match uses the weak comparison
+			if (tag.startsWith("W/")) {
+				tag = tag.substring(2);
+			}
+			if ("*".equals(tag) || current.equals(tag)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
@@ -0,0 +1,208 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.runtime;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import de.adorsys.beanval2json.BeanvalAnnotationProcessor;
+import de.adorsys.beanval2json.ConstraintMapping;
+import de.adorsys.beanval2json.ConstraintsWriter;
+import de.adorsys.beanval2json.ProcessingException;
+import de.adorsys.beanval2json.bytecode.ClassFileScanner;
+
+/**
+ * Serves the constraints of the classes of the running application.
+ * The constraints are read from the class-files once, at startup or on the first request if the init-parameter
+ * 'lazy' is true, and held in memory as bytes, so a request costs not more than copying them.
+ * 
+ * Init-parameters:
+ * - paths: comma-separated paths within the webapp to scan, a path ending with '*.jar' stands for 
+ *   all jars in the directory sorted by name (default: /WEB-INF/classes). Classes in later paths replace
+ *   classes with the same name in earlier ones.
+ * - mappingFile, messagesFile, ignoreFile: classpath-resources like the options of the BeanvalAnnotationProcessor
+ * - format, encoding: like the options of the BeanvalAnnotationProcessor
+ * - lazy: true to read the constraints on the first request
+ * @author Florian Hirsch
+ */
+public class ConstraintsServlet extends HttpServlet {
+
+	private static final long serialVersionUID = 1L;
+
+	public static final String PARAM_PATHS = "paths";
+
+	public static final String PARAM_LAZY = "lazy";
+
+	private static final String DEFAULT_PATHS = "/WEB-INF/classes";
+
+	private static final String JAR_WILDCARD = "*.jar";
+
+	private static final String CONTENT_TYPE = "application/json;charset=UTF-8";
+
+	private static final String GZIP = "gzip";
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private volatile ConstraintsResource resource;
+
+	@Override
+	public void init() throws ServletException {
+		if (!Boolean.parseBoolean(getInitParameter(PARAM_LAZY))) {
+			resource = createResource();
+		}
+	}
+
+	@Override
+	protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+		ConstraintsResource current = getResource();
+		boolean gzip = acceptsGzip(req.getHeader("Accept-Encoding"));
+		resp.setHeader("ETag", current.getETag(gzip));
+		resp.setHeader("Vary", "Accept-Encoding");
+		resp.setHeader("Cache-Control", "no-cache");
+		if (current.matches(req.getHeader("If-None-Match"), gzip)) {
+			resp.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+			return;
+		}
+		byte[] content = current.getContent(gzip);
+		resp.setContentType(CONTENT_TYPE);
+		if (gzip) {
+			resp.setHeader("Content-Encoding", GZIP);
+		}
+		resp.setContentLength(content.length);
+		resp.getOutputStream().write(content);
+	}
+
+	private ConstraintsResource getResource() throws ServletException {
+		ConstraintsResource current = resource;
+		if (current == null) {
+			synchronized (this) {
+				current = resource;
+				if (current == null) {
+					current = createResource();
+					resource = current;
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * @return true if the Accept-Encoding header contains gzip without q=0
+	 */
+	private boolean acceptsGzip(String acceptEncoding) {
+		if (acceptEncoding == null) {
+			return false;
+		}
+		for (String coding : acceptEncoding.split(",")) {
+			String[] parts = coding.split(";");
+			if (GZIP.equalsIgnoreCase(parts[0].trim())) {
+				return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+			}
+		}
+		return false;
+	}
+
+	private ConstraintsResource createResource() throws ServletException {
+		try {
+			ConstraintsWriter constraintsWriter = ConstraintsWriter.forOptions(getInitParameter(BeanvalAnnotationProcessor.OPTION_FORMAT),
+					getInitParameter(BeanvalAnnotationProcessor.OPTION_ENCODING));
+			ClassFileScanner scanner = new ClassFileScanner(loadProperties(getInitParameter(BeanvalAnnotationProcessor.OPTION_MESSAGES_FILE)),
+					loadIgnoreFile(getInitParameter(BeanvalAnnotationProcessor.OPTION_IGNORE_FILE)));
+			Properties mapping = loadProperties(getInitParameter(BeanvalAnnotationProcessor.OPTION_MAPPING_FILE));
+			return ConstraintsResource.create(ConstraintMapping.apply(mapping, scanner.scan(getPaths()).getConstraints()), constraintsWriter);
+		} catch (ProcessingException | IOException ex) {
+			throw new ServletException(String.format("Could not read constraints: %s", ex.getMessage()), ex);
+		}
+	}
+
+	private List<Path> getPaths() throws ServletException, IOException {
+		String paths = getInitParameter(PARAM_PATHS);
+		List<Path> result = new ArrayList<>();
+		for (String path : (paths == null ? DEFAULT_PATHS : paths).split(",")) {
+			path = path.trim();
+			boolean jars = path.endsWith(JAR_WILDCARD);
+			String realPath = getServletContext().getRealPath(jars ? path.substring(0, path.length() - JAR_WILDCARD.length()) : path);
+			if (realPath == null) {
+				throw new ServletException(String.format("Path '%s' is not available in the file-system, the webapp has to be exploded", path));
+			}
+			if (!jars) {
+				result.add(Paths.get(realPath));
+				continue;
+			}
+			// the order of the directory-stream is undefined, but decides which of the same classes wins
+			List<Path> jarPaths = new ArrayList<>();
+			try (DirectoryStream<Path> directory = Files.newDirectoryStream(Paths.get(realPath), JAR_WILDCARD)) {
+				for (Path jar : directory) {
+					jarPaths.add(jar);
+				}
+			}
+			Collections.sort(jarPaths);
+			result.addAll(jarPaths);
+		}
+		return result;
+	}
+
+	private Properties loadProperties(String resource) throws IOException {
+		if (resource == null) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream in = openResource(resource)) {
+			properties.load(in);
+		}
+		return properties;
+	}
+
+	private Set<String> loadIgnoreFile(String resource) throws IOException {
+		if (resource == null) {
+			return null;
+		}
+		Set<String> lines = new HashSet<>();
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(openResource(resource), UTF_8))) {
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+
+	private InputStream openResource(String resource) throws IOException {
+		InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource);
+		if (in == null) {
+			throw new IOException(String.format("Resource '%s' not found", resource));
+		}
+		return in;
+	}
+
+}
@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.testsupport;
+
+/**
+ * The constraint-annotations a field of a SyntheticModel can be annotated with.
+ * The format-arguments of each declaration are the index of the field, a small number
+ * derived from the index and the groups- and payload-attributes.
+ * @author Florian Hirsch
+ */
+public enum ConstraintKind {
+
+	NOT_NULL("@NotNull(%3$s) private String field%1$d;"),
+	SIZE("@Size(min = 1, max = %2$d0%3$s) private String field%1$d;"),
+	PATTERN("@Pattern(regexp = \"[a-z]{%2$d,}\", flags = Pattern.Flag.CASE_INSENSITIVE, message = \"letters only\"%3$s) private String field%1$d;"),
+	MIN_MAX("@Min(value = %2$d%3$s) @Max(value = %2$d00%3$s) private int field%1$d;"),
+	DECIMAL("@DecimalMin(value = \"0.%2$d\"%3$s) @DecimalMax(value = \"%2$d00.0\", inclusive = false%3$s) private java.math.BigDecimal field%1$d;"),
+	DIGITS("@Digits(integer = %2$d, fraction = 2%3$s) private java.math.BigDecimal field%1$d;"),
+	PAST("@Past(message = \"{javax.validation.constraints.Past.message}\"%3$s) private java.util.Date field%1$d;"),
+	FUTURE("@Future(%3$s) private java.util.Date field%1$d;"),
+	ASSERT_TRUE("@AssertTrue(%3$s) private Boolean field%1$d;"),
+	ASSERT_FALSE("@AssertFalse(message = \"must be false\"%3$s) private Boolean field%1$d;"),
+	NULL("@Null(%3$s) private String field%1$d;");
+
+	private final String declaration;
+
+	private ConstraintKind(String declaration) {
+		this.declaration = declaration;
+	}
+
+	/**
+	 * @param attributes the groups- and payload-attributes without leading comma or an empty string
+	 * @return the declaration of the field
+	 */
+	String declare(int field, String attributes) {
+		String arguments = attributes;
+		if (!attributes.isEmpty() && !declaration.contains("(%3$s)")) {
+			arguments = ", " + attributes;
+		}
+		return String.format(declaration, field, 1 + field % 9, arguments);
+	}
+
+}
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.testsupport;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.annotation.processing.Processor;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Runs annotation-processors with the in-process JavaCompiler on given sources.
+ * The sources are only parsed and processed (-proc:only), no class-files are written.
+ * The sources are read once, so the same compiler can be run repeatedly.
+ * @author Florian Hirsch
+ */
+public class ModelCompiler implements Closeable {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final JavaCompiler compiler;
+
+	private final StandardJavaFileManager fileManager;
+
+	private final Iterable<? extends JavaFileObject> sources;
+
+	private final List<String> options;
+
+	/**
+	 * @param output the directory the processors write their resources to
+	 * @param processorOptions options like "-AmessagesFile=messages.properties"
+	 */
+	public ModelCompiler(List<File> sources, File output, String... processorOptions) {
+		this.compiler = ToolProvider.getSystemJavaCompiler();
+		if (compiler == null) {
+			throw new IllegalStateException("No JavaCompiler available, a JDK is required");
+		}
+		this.fileManager = compiler.getStandardFileManager(null, null, UTF_8);
+		this.sources = fileManager.getJavaFileObjectsFromFiles(sources);
+		output.mkdirs();
+		this.options = new ArrayList<>(Arrays.asList("-proc:only", "-s", output.getPath(), "-classpath", System.getProperty("java.class.path")));
+		this.options.addAll(Arrays.asList(processorOptions));
+	}
+
+	/**
+	 * @param processors may be empty to measure the compiler only
+	 * @throws IllegalStateException if the compilation fails
+	 */
+	public void compile(Processor... processors) {
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null, sources);
+		task.setProcessors(Arrays.asList(processors));
+		if (!task.call()) {
+			StringBuilder message = new StringBuilder("Compilation failed:");
+			for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					message.append('\n').append(diagnostic);
+				}
+			}
+			throw new IllegalStateException(message.toString());
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		fileManager.close();
+	}
+
+}
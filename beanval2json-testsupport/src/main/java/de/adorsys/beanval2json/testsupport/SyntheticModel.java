@@ -0,0 +1,240 @@
+/**
+ * Copyright (C) 2014 Florian Hirsch
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package de.adorsys.beanval2json.testsupport;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes the sources of a model of configurable size for scale-tests and benchmarks.
+ * The fields of each class use the configured constraint-kinds in turn and are spread
+ * over the class and its nested classes. Each n-th field is assigned to one of the groups
+ * and payloads, which are declared in the classes Groups and Payloads.
+ * The same settings always give the same sources.
+ * @author Florian Hirsch
+ */
+public class SyntheticModel {
+
+	public static final String BASE_PACKAGE = "synthetic";
+
+	private static final int CLASSES_PER_PACKAGE = 10;
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private final int classes;
+
+	private final int fieldsPerClass;
+
+	private List<ConstraintKind> constraintKinds = Arrays.asList(ConstraintKind.values());
+
+	private int groups;
+
+	private int payloads;
+
+	private int nestingDepth;
+
+	public SyntheticModel(int classes, int fieldsPerClass) {
+		this.classes = classes;
+		this.fieldsPerClass = fieldsPerClass;
+	}
+
+	/**
+	 * @return a model of top-level classes with 100 fields each
+	 */
+	public static SyntheticModel withFields(int fields) {
+		return new SyntheticModel((fields + 99) / 100, Math.min(fields, 100));
+	}
+
+	public int getFields() {
+		return classes * fieldsPerClass;
+	}
+
+	public List<ConstraintKind> getConstraintKinds() {
+		return constraintKinds;
+	}
+
+	public void setConstraintKinds(List<ConstraintKind> constraintKinds) {
+		this.constraintKinds = constraintKinds;
+	}
+
+	public int getGroups() {
+		return groups;
+	}
+
+	/**
+	 * @param groups the number of group-interfaces, 0 to use the Default-group only
+	 */
+	public void setGroups(int groups) {
+		this.groups = groups;
+	}
+
+	public int getPayloads() {
+		return payloads;
+	}
+
+	/**
+	 * @param payloads the number of payload-interfaces, 0 for constraints without payload
+	 */
+	public void setPayloads(int payloads) {
+		this.payloads = payloads;
+	}
+
+	public int getNestingDepth() {
+		return nestingDepth;
+	}
+
+	/**
+	 * @param nestingDepth the number of nested classes within each other in each top-level class
+	 */
+	public void setNestingDepth(int nestingDepth) {
+		this.nestingDepth = nestingDepth;
+	}
+
+	/**
+	 * @return the written source-files
+	 */
+	public List<File> writeSources(File directory) throws IOException {
+		List<File> files = new ArrayList<>();
+		if (groups > 0) {
+			files.add(write(directory, BASE_PACKAGE, "Groups", declareInterfaces("Group", groups, "")));
+		}
+		if (payloads > 0) {
+			files.add(write(directory, BASE_PACKAGE, "Payloads", declareInterfaces("Payload", payloads, " extends javax.validation.Payload")));
+		}
+		for (int classIndex = 0; classIndex < classes; classIndex++) {
+			files.add(write(directory, packageOf(classIndex), simpleNameOf(classIndex, 0), declareClass(classIndex, 0)));
+		}
+		return files;
+	}
+
+	/**
+	 * @return the full qualified names of all properties as used by the processor
+	 */
+	public List<String> getPropertyNames() {
+		List<String> result = new ArrayList<>(getFields());
+		for (int field = 0; field < getFields(); field++) {
+			result.add(propertyName(field));
+		}
+		return result;
+	}
+
+	/**
+	 * @return rules for an ignoreFile: plain property-names which match some properties,
+	 * package-prefixes and regular expressions which match none
+	 */
+	public List<String> ignoreRules(int count) {
+		List<String> result = new ArrayList<>(count);
+		for (int rule = 0; rule < count; rule++) {
+			switch (rule % 3) {
+			case 0:
+				result.add(propertyName(rule * 7 % Math.max(1, getFields())));
+				break;
+			case 1:
+				result.add(String.format("%s.unused%d.*", BASE_PACKAGE, rule));
+				break;
+			default:
+				result.add(String.format("%s\\.p\\d+\\.Model\\d+\\.unused%d", BASE_PACKAGE, rule));
+			}
+		}
+		return result;
+	}
+
+	private String declareInterfaces(String prefix, int count, String extension) {
+		StringBuilder body = new StringBuilder();
+		for (int i = 0; i < count; i++) {
+			body.append(String.format("\tpublic interface %s%d%s {}%n", prefix, i, extension));
+		}
+		return body.toString();
+	}
+
+	/**
+	 * @return the body of the class of given nesting-level including its nested classes
+	 */
+	private String declareClass(int classIndex, int level) {
+		StringBuilder body = new StringBuilder();
+		for (int field = classIndex * fieldsPerClass; field < (classIndex + 1) * fieldsPerClass; field++) {
+			if (levelOf(field) == level) {
+				ConstraintKind kind = constraintKinds.get(field % constraintKinds.size());
+				body.append('\t').append(kind.declare(field, attributes(field))).append('\n');
+			}
+		}
+		if (level < nestingDepth) {
+			body.append(String.format("public static class %s {%n", simpleNameOf(classIndex, level + 1)));
+			body.append(declareClass(classIndex, level + 1));
+			body.append("}\n");
+		}
+		return body.toString();
+	}
+
+	/**
+	 * @return the groups- and payload-attributes of given field
+	 */
+	private String attributes(int field) {
+		List<String> attributes = new ArrayList<>();
+		// every other field of each nesting-level stays in the Default-group
+		if (groups > 0 && field / (nestingDepth + 1) % 2 == 1) {
+			attributes.add(String.format("groups = { %s.Groups.Group%d.class }", BASE_PACKAGE, field / 2 % groups));
+		}
+		if (payloads > 0 && field % 3 == 2) {
+			attributes.add(String.format("payload = { %s.Payloads.Payload%d.class }", BASE_PACKAGE, field / 3 % payloads));
+		}
+		return attributes.isEmpty() ? "" : join(attributes);
+	}
+
+	private String join(List<String> values) {
+		StringBuilder result = new StringBuilder();
+		for (String value : values) {
+			result.append(result.length() == 0 ? "" : ", ").append(value);
+		}
+		return result.toString();
+	}
+
+	private File write(File directory, String packageName, String simpleName, String body) throws IOException {
+		String source = String.format("package %s;%nimport javax.validation.constraints.*;%npublic class %s {%n%s}%n", 
+				packageName, simpleName, body);
+		File file = new File(directory, packageName.replace('.', File.separatorChar) + File.separator + simpleName + ".java");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), Collections.singletonList(source), UTF_8);
+		return file;
+	}
+
+	private String propertyName(int field) {
+		int classIndex = field / fieldsPerClass;
+		return String.format("%s.%s.field%d", packageOf(classIndex), simpleNameOf(classIndex, levelOf(field)), field);
+	}
+
+	private int levelOf(int field) {
+		return field % (nestingDepth + 1);
+	}
+
+	private String packageOf(int classIndex) {
+		return String.format("%s.p%d", BASE_PACKAGE, classIndex / CLASSES_PER_PACKAGE);
+	}
+
+	/**
+	 * nested classes are named by their top-level class, so the property-names are unique
+	 */
+	private String simpleNameOf(int classIndex, int level) {
+		return level == 0 ? "Model" + classIndex : String.format("Model%dNested%d", classIndex, level);
+	}
+
+}